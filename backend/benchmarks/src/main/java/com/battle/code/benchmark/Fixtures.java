@@ -0,0 +1,84 @@
+package com.battle.code.benchmark;
+
+import com.battle.code.service.SkillMatchmaker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 벤치마크 입력 (src/main/resources/fixtures)
+ * - land_grab_run.jsonl: 실제 referee.py land_grab run 출력 (TURN 50줄 + RESULT 1줄, 15x15 보드)
+ * - queue_snapshot.json: 매칭 대기열 스냅샷 1000명 [userId, 대기 ms, 레이팅], 대기열 순서 (오래 기다린 순)
+ * - 입력을 바꾸면 이전 결과와 비교할 수 없으므로 파일을 고치지 말고 새 fixture 를 추가
+ */
+public final class Fixtures {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Fixtures() {
+    }
+
+    // referee 출력 줄 (마지막 줄이 RESULT)
+    public static List<String> refereeLines() {
+        List<String> lines = new ArrayList<>();
+        for (String line : read("land_grab_run.jsonl").split("\n")) {
+            if (!line.isBlank()) lines.add(line);
+        }
+        return lines;
+    }
+
+    // 리플레이 저장 입력: RESULT 를 제외한 TURN 로그
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> turnLogs() {
+        List<Map<String, Object>> logs = new ArrayList<>();
+        try {
+            for (String line : refereeLines()) {
+                Map<String, Object> message = MAPPER.readValue(line, Map.class);
+                if ("TURN".equals(message.get("type"))) logs.add(message);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return logs;
+    }
+
+    // 대기열 스냅샷 (앞에서 size 명), joinedAt 은 capturedAt 기준으로 복원
+    public static List<SkillMatchmaker.Candidate> queue(int size) {
+        JsonNode root = readTree("queue_snapshot.json");
+        long capturedAt = capturedAt();
+        List<SkillMatchmaker.Candidate> candidates = new ArrayList<>(size);
+        for (JsonNode row : root.get("candidates")) {
+            if (candidates.size() == size) break;
+            candidates.add(new SkillMatchmaker.Candidate(row.get(0).asText(), capturedAt - row.get(1).asLong(), row.get(2).asInt()));
+        }
+        return candidates;
+    }
+
+    public static long capturedAt() {
+        return readTree("queue_snapshot.json").get("capturedAt").asLong();
+    }
+
+    private static JsonNode readTree(String name) {
+        try {
+            return MAPPER.readTree(read(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String read(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IllegalStateException("Fixture not found: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
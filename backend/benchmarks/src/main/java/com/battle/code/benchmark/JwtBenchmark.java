@@ -0,0 +1,52 @@
+package com.battle.code.benchmark;
+
+import com.battle.code.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 검증 (JwtFilter / StompHandler 가 요청마다 실행하는 경로)
+ * - parseClaims: 서명 검증 + 클레임 추출
+ * - authenticate: parseClaims + 클레임으로 인증 객체 생성 (DB 조회 없음)
+ * - rejectTampered: 서명이 틀린 토큰 (예외 경로)
+ * - 서명 키는 인스턴스마다 새로 만들어지므로 토큰은 setup 에서 발급
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider provider;
+    private String token;
+    private String tampered;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider();
+        token = provider.createToken(1024L, "USER");
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        char flipped = signature.charAt(0) == 'A' ? 'B' : 'A';
+        tampered = token.substring(0, token.lastIndexOf('.') + 1) + flipped + signature.substring(1);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return provider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return provider.getAuthentication(provider.parseClaims(token));
+    }
+
+    @Benchmark
+    public Claims rejectTampered() {
+        return provider.parseClaims(tampered);
+    }
+}
@@ -0,0 +1,41 @@
+package com.battle.code.benchmark;
+
+import com.battle.code.service.SkillMatchmaker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매칭 짝짓기 (MatchingScheduler 가 틱마다 호출하는 SkillMatchmaker.pair)
+ * - 대기열 스냅샷 앞에서 queueSize 명, 스냅샷 시각 기준 대기시간 그대로 (허용 레이팅 차이 포함)
+ * - 200 은 기본 배치 크기 (matching.batch-size)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchmakingBenchmark {
+
+    @Param({"200", "1000"})
+    public int queueSize;
+
+    private SkillMatchmaker matchmaker;
+    private List<SkillMatchmaker.Candidate> candidates;
+    private long now;
+
+    @Setup
+    public void setup() {
+        // 기본 설정값과 동일
+        matchmaker = new SkillMatchmaker(200, 100, 20, 1000);
+        candidates = Fixtures.queue(queueSize);
+        now = Fixtures.capturedAt();
+    }
+
+    @Benchmark
+    public List<SkillMatchmaker.Pair> pair() {
+        return matchmaker.pair(candidates, now);
+    }
+}
@@ -0,0 +1,53 @@
+package com.battle.code.benchmark;
+
+import com.battle.code.domain.MatchReplay;
+import com.battle.code.service.ReplayCodec;
+import com.battle.code.service.ReplayService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리플레이 저장 직렬화 (MatchService 가 결과 저장 시 호출하는 경로)
+ * - encode: ReplayCodec 압축 포맷 (변경분 + 키프레임)
+ * - create: encode + 구간별 gzip + 턴 인덱스 (ReplayService.create, 실제 저장 엔티티)
+ * - legacyJson: 압축 포맷 이전처럼 턴 로그 전체를 JSON 문자열로 저장 (비교 기준)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplayBenchmark {
+
+    private List<Map<String, Object>> logs;
+    private ReplayCodec codec;
+    private ReplayService replayService;
+
+    @Setup
+    public void setup() {
+        logs = Fixtures.turnLogs();
+        codec = new ReplayCodec(Fixtures.MAPPER);
+        // create 는 DB 를 사용하지 않음
+        replayService = new ReplayService(codec, null, Fixtures.MAPPER);
+    }
+
+    @Benchmark
+    public String encode() throws IOException {
+        return codec.encode(logs);
+    }
+
+    @Benchmark
+    public MatchReplay create() throws IOException {
+        return replayService.create(logs);
+    }
+
+    @Benchmark
+    public String legacyJson() throws IOException {
+        return Fixtures.MAPPER.writeValueAsString(logs);
+    }
+}
@@ -0,0 +1,52 @@
+package com.battle.code.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * referee 출력 파싱 (LandGrabService.runRefereeStreaming 과 같은 objectMapper.readValue(line, Map.class))
+ * - turnLine: TURN 한 줄 (보드 전체 포함, 가장 흔한 경우)
+ * - resultLine: 마지막 RESULT 한 줄
+ * - wholeMatch: 한 매치 출력 전체 (51줄)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultParseBenchmark {
+
+    private List<String> lines;
+    private String turnLine;
+    private String resultLine;
+
+    @Setup
+    public void setup() {
+        lines = Fixtures.refereeLines();
+        turnLine = lines.get(lines.size() / 2);
+        resultLine = lines.get(lines.size() - 1);
+    }
+
+    @Benchmark
+    public Map<?, ?> turnLine() throws IOException {
+        return Fixtures.MAPPER.readValue(turnLine, Map.class);
+    }
+
+    @Benchmark
+    public Map<?, ?> resultLine() throws IOException {
+        return Fixtures.MAPPER.readValue(resultLine, Map.class);
+    }
+
+    @Benchmark
+    public void wholeMatch(Blackhole bh) throws IOException {
+        for (String line : lines) {
+            bh.consume(Fixtures.MAPPER.readValue(line, Map.class));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.battle.code.benchmark;
+
+import com.battle.code.service.CodeTemplateManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 러너 템플릿 렌더링 (LandGrabService.savePlayerCode 와 같은 loadRunnerTemplate + %USER_CODE% 치환)
+ * - 사용자 코드는 배포된 AI 봇 (templates/ai/landgrab/hard.py) 을 사용
+ * - 템플릿은 첫 호출 이후 캐시되므로 캐시 조회 + 치환 비용을 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Param({"python", "java", "cpp", "c", "javascript"})
+    public String language;
+
+    private CodeTemplateManager templateManager;
+    private String userCode;
+
+    @Setup
+    public void setup() {
+        templateManager = new CodeTemplateManager();
+        userCode = templateManager.loadAiCode("land_grab", "hard");
+        templateManager.loadRunnerTemplate(language);
+    }
+
+    @Benchmark
+    public String render() {
+        return templateManager.loadRunnerTemplate(language).replace("%USER_CODE%", userCode);
+    }
+}
@@ -0,0 +1,14 @@
+package com.battle.code.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Actuator 기본 설정 (actuator.properties)
+ * - application.properties 보다 우선순위가 낮으므로 환경별 설정으로 덮어쓸 수 있음
+ * - 접근 제어는 SecurityConfig (/actuator/health 만 공개, 나머지는 ADMIN)
+ */
+@Configuration
+@PropertySource("classpath:actuator.properties")
+public class ActuatorConfig {
+}
@@ -0,0 +1,29 @@
+package com.battle.code.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * 매치 실행 전용 스레드 풀
+     * - Docker 실행이 Tomcat 요청 스레드를 점유하지 않도록 분리
+     * - 큐가 가득 차면 TaskRejectedException -> 503 응답
+     */
+    @Bean(name = "matchExecutor")
+    public ThreadPoolTaskExecutor matchExecutor(@Value("${match.executor.pool-size:4}") int poolSize,
+                                                @Value("${match.executor.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("match-exec-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
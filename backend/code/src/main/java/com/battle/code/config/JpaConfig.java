@@ -0,0 +1,22 @@
+package com.battle.code.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    /**
+     * JDBC 배치 INSERT 기본값 (application 설정에 값이 있으면 그대로 사용)
+     * - 매치 결과/토너먼트 결과는 여러 건을 한 트랜잭션으로 저장하므로 테이블별로 묶어서 전송
+     * - MySQL 은 JDBC URL 에 rewriteBatchedStatements=true 를 주면 다중 행 INSERT 로 변환됨
+     */
+    @Bean
+    public HibernatePropertiesCustomizer batchInsertCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", 50);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package com.battle.code.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 노드 간 STOMP 메시지 중계 (Redis Pub/Sub)
+ * - 로컬 SimpleBroker 는 같은 JVM 에 연결된 구독자에게만 전달하므로, 여러 노드로 띄우면 상대 플레이어가 메시지를 못 받음
+ * - stomp.relay.enabled=true 이면 brokerChannel 로 들어오는 /topic 메시지를 stomp_relay 채널로 발행
+ *   다른 노드는 받은 메시지를 자기 brokerChannel 로 다시 넣어 로컬 구독자에게 전달
+ * - 전송 형식: "{nodeId}|{destination}|{contentType}|" + 변환된 payload 바이트
+ * - /queue (유저 세션별 목적지) 는 세션이 연결된 노드에서만 의미가 있으므로 중계하지 않음
+ */
+@Slf4j
+@Component
+public class RedisStompRelay implements ChannelInterceptor, MessageListener {
+
+    private static final String CHANNEL = "stomp_relay";
+    private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
+    private static final String RELAYED_HEADER = "relayedFrom";
+    private static final byte SEPARATOR = '|';
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MessageChannel brokerChannel;
+    private final boolean enabled;
+    private final List<String> prefixes;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public RedisStompRelay(RedisTemplate<String, Object> redisTemplate,
+                           RedisMessageListenerContainer listenerContainer,
+                           @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                           @Value("${stomp.relay.enabled:false}") boolean enabled,
+                           @Value("${stomp.relay.prefixes:/topic/}") List<String> prefixes) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.brokerChannel = brokerChannel;
+        this.enabled = enabled;
+        this.prefixes = prefixes;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!enabled) return;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        log.info("[StompRelay] Enabled (node {}, prefixes {})", nodeId, prefixes);
+    }
+
+    // 로컬 브로커로 가는 메시지를 다른 노드에도 발행 (로컬 전달은 그대로 진행)
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!enabled || message.getHeaders().containsKey(RELAYED_HEADER)) return message;
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) return message;
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !isRelayed(destination) || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length + 128);
+        body.writeBytes((nodeId + "|" + destination + "|" + (contentType != null ? contentType : "") + "|")
+                .getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(payload);
+
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(CHANNEL_BYTES, body.toByteArray()));
+            published.incrementAndGet();
+        } catch (Exception e) {
+            // 로컬 구독자에게는 전달되므로 메시지 자체는 버리지 않음
+            failed.incrementAndGet();
+            log.warn("[StompRelay] Failed to publish {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    // 다른 노드에서 온 메시지를 로컬 브로커로 전달
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        byte[] body = message.getBody();
+        int first = indexOf(body, 0);
+        int second = first < 0 ? -1 : indexOf(body, first + 1);
+        int third = second < 0 ? -1 : indexOf(body, second + 1);
+        if (third < 0) return;
+
+        String origin = new String(body, 0, first, StandardCharsets.UTF_8);
+        if (origin.equals(nodeId)) return; // 자기 자신이 보낸 메시지는 이미 전달됨
+
+        String destination = new String(body, first + 1, second - first - 1, StandardCharsets.UTF_8);
+        String contentType = new String(body, second + 1, third - second - 1, StandardCharsets.UTF_8);
+        byte[] payload = new byte[body.length - third - 1];
+        System.arraycopy(body, third + 1, payload, 0, payload.length);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (!contentType.isEmpty()) accessor.setContentType(MimeType.valueOf(contentType));
+        accessor.setHeader(RELAYED_HEADER, origin);
+        accessor.setLeaveMutable(true);
+
+        brokerChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        received.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("prefixes", prefixes);
+        stats.put("published", published.get());
+        stats.put("received", received.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    private boolean isRelayed(String destination) {
+        for (String prefix : prefixes) {
+            if (destination.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private int indexOf(byte[] body, int from) {
+        for (int i = from; i < body.length; i++) {
+            if (body[i] == SEPARATOR) return i;
+        }
+        return -1;
+    }
+}
@@ -1,9 +1,10 @@
 package com.battle.code.config;
 
+import com.battle.code.repository.MatchRoomRepository;
 import com.battle.code.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompCommand;
@@ -19,13 +20,13 @@ import java.util.Map;
 public class StompHandler implements ChannelInterceptor {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final MatchRoomRepository matchRoomRepository;
 
     @Autowired
     public StompHandler(JwtTokenProvider jwtTokenProvider,
-                        RedisTemplate<String, Object> redisTemplate) {
+                        MatchRoomRepository matchRoomRepository) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.redisTemplate = redisTemplate;
+        this.matchRoomRepository = matchRoomRepository;
     }
 
     @Override
@@ -48,12 +49,13 @@ public class StompHandler implements ChannelInterceptor {
             if (token != null && token.startsWith("Bearer ")) {
                 token = token.substring(7);
 
-                if (jwtTokenProvider.validateToken(token)) {
-                    String userId = String.valueOf(jwtTokenProvider.getUserId(token));
+                Claims claims = jwtTokenProvider.parseClaims(token);
+                if (claims != null) {
+                    String userId = String.valueOf(jwtTokenProvider.getUserId(claims));
                     String sessionId = accessor.getSessionId();
 
                     // 세션-유저 매핑 저장
-                    redisTemplate.opsForValue().set("websocket_session:" + sessionId, userId);
+                    matchRoomRepository.bindSocketUser(sessionId, userId);
                     log.info("[WebSocket] Auth Success: User {} (Session: {})", userId, sessionId);
                 } else {
                     log.error("[WebSocket] Token validation failed");
@@ -13,6 +13,7 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private final StompHandler stompHandler;
+    private final RedisStompRelay redisStompRelay;
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -28,6 +29,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.enableSimpleBroker("/topic", "/queue");
         // 메시지 발행 요청
         registry.setApplicationDestinationPrefixes("/app");
+        // 노드 간 중계 (stomp.relay.enabled=true 일 때 /topic 메시지를 Redis 로 발행)
+        registry.configureBrokerChannel().interceptors(redisStompRelay);
     }
 
     @Override
@@ -1,11 +1,11 @@
 package com.battle.code.config;
 
+import com.battle.code.repository.MatchRoomRepository;
 import com.battle.code.service.GameSessionService;
 import com.battle.code.service.MatchingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
@@ -14,7 +14,7 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 @RequiredArgsConstructor
 public class WebSocketEventListener {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final MatchRoomRepository matchRoomRepository;
     private final MatchingService matchingService;
     private final GameSessionService gameSessionService;
 
@@ -23,7 +23,7 @@ public class WebSocketEventListener {
         String sessionId = event.getSessionId();
 
         // 유저 ID 조회
-        String userId = (String) redisTemplate.opsForValue().get("websocket_session:" + sessionId);
+        String userId = matchRoomRepository.findSocketUser(sessionId);
 
         if (userId != null) {
             log.info("[WebSocket Event] Disconnected: User {} (Session: {})", userId, sessionId);
@@ -36,18 +36,15 @@ public class WebSocketEventListener {
             }
 
             // 세션 ID로 조회
-            String matchId = (String) redisTemplate.opsForValue().get("socket_game:" + sessionId);
+            String matchId = matchRoomRepository.findSocketGame(sessionId);
 
             if (matchId != null) {
                 log.info("Active Game Session Disconnected! Match: {}, User: {}", matchId, userId);
                 gameSessionService.handleDisconnection(matchId, userId);
-
-                // 매핑 삭제
-                redisTemplate.delete("socket_game:" + sessionId);
             }
 
-            // 세션 정보 정리
-            redisTemplate.delete("websocket_session:" + sessionId);
+            // 세션 정보 정리 (유저/매치 매핑 함께 삭제)
+            matchRoomRepository.unbindSocket(sessionId);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.battle.code.controller;
+
+import com.battle.code.config.RedisStompRelay;
+import com.battle.code.dto.TournamentRequestDto;
+import com.battle.code.repository.MatchRoomRepository;
+import com.battle.code.service.CodeBlobService;
+import com.battle.code.service.CompileArtifactCache;
+import com.battle.code.service.MapPoolService;
+import com.battle.code.service.MatchResultWriter;
+import com.battle.code.service.MatchTracer;
+import com.battle.code.service.SandboxContainerPool;
+import com.battle.code.service.SkillMatchmaker;
+import com.battle.code.service.TournamentService;
+import com.battle.code.service.UserProfileCache;
+import com.battle.code.service.WorkspaceManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 운영 모니터링용 API (ADMIN 전용)
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SandboxContainerPool sandboxPool;
+    private final CompileArtifactCache artifactCache;
+    private final MapPoolService mapPoolService;
+    private final WorkspaceManager workspaceManager;
+    private final TournamentService tournamentService;
+    private final SkillMatchmaker skillMatchmaker;
+    private final MatchRoomRepository matchRoomRepository;
+    private final RedisStompRelay redisStompRelay;
+    private final UserProfileCache userProfileCache;
+    private final MatchResultWriter matchResultWriter;
+    private final CodeBlobService codeBlobService;
+    private final MatchTracer matchTracer;
+
+    // 엔진 컨테이너 워밍 풀 상태 (대여 대기시간, 재사용 횟수 등)
+    @GetMapping("/sandbox")
+    public ResponseEntity<?> getSandboxStats() {
+        return ResponseEntity.ok(sandboxPool.getStats());
+    }
+
+    // 컴파일 산출물 캐시 상태 (항목 수, 용량, 적중률)
+    @GetMapping("/artifact-cache")
+    public ResponseEntity<?> getArtifactCacheStats() {
+        return ResponseEntity.ok(artifactCache.getStats());
+    }
+
+    // 사전 생성 맵 풀 상태 (잔여 수, low watermark 도달 횟수 등)
+    @GetMapping("/map-pool")
+    public ResponseEntity<?> getMapPoolStats() {
+        return ResponseEntity.ok(mapPoolService.getStats());
+    }
+
+    // 매치 작업 디렉토리 상태 (상태별 개수, 사용 용량)
+    @GetMapping("/workspaces")
+    public ResponseEntity<?> getWorkspaceStats() {
+        return ResponseEntity.ok(workspaceManager.getStats());
+    }
+
+    // 매칭 상태 (대기열 길이, 틱당 매칭 수, 매칭 대기시간 백분위)
+    @GetMapping("/matchmaking")
+    public ResponseEntity<?> getMatchmakingStats() {
+        return ResponseEntity.ok(skillMatchmaker.getStats());
+    }
+
+    // PvP 방/세션 Redis 키 개수와 TTL 설정
+    @GetMapping("/rooms")
+    public ResponseEntity<?> getRoomStats() {
+        return ResponseEntity.ok(matchRoomRepository.getStats());
+    }
+
+    // 노드 간 STOMP 중계 상태 (발행/수신/실패 수)
+    @GetMapping("/stomp-relay")
+    public ResponseEntity<?> getStompRelayStats() {
+        return ResponseEntity.ok(redisStompRelay.getStats());
+    }
+
+    // 유저 프로필 캐시 상태 (항목 수, 적중률)
+    @GetMapping("/user-cache")
+    public ResponseEntity<?> getUserCacheStats() {
+        return ResponseEntity.ok(userProfileCache.getStats());
+    }
+
+    // 매치 결과 write-behind 상태 (대기 건수, 배치 크기, 실패 수)
+    @GetMapping("/result-writer")
+    public ResponseEntity<?> getResultWriterStats() {
+        return ResponseEntity.ok(matchResultWriter.getStats());
+    }
+
+    // 제출 코드 저장 현황 (고유 코드 수, 참조 수, 이전 대기 중인 구버전 행)
+    @GetMapping("/code-blobs")
+    public ResponseEntity<?> getCodeBlobStats() {
+        return ResponseEntity.ok(codeBlobService.getStats());
+    }
+
+    // 매치 진행 타임라인 (큐 참가 ~ DB 저장, 이 노드에 남은 최근 매치만)
+    @GetMapping("/matches/{matchUuid}/trace")
+    public ResponseEntity<?> getMatchTrace(@PathVariable String matchUuid) {
+        Map<String, Object> timeline = matchTracer.getTimeline(matchUuid);
+        if (timeline == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(timeline);
+    }
+
+    // 타임라인 보관 현황
+    @GetMapping("/traces")
+    public ResponseEntity<?> getTraceStats() {
+        return ResponseEntity.ok(matchTracer.getStats());
+    }
+
+    // 저장된 제출 코드/AI 봇 대상 토너먼트 일괄 실행 (진행 상황은 GET 으로 조회)
+    @PostMapping("/tournaments")
+    public ResponseEntity<?> startTournament(@RequestBody TournamentRequestDto request) {
+        try {
+            return ResponseEntity.accepted().body(tournamentService.start(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 토너먼트 진행 상황 및 순위표
+    @GetMapping("/tournaments/{tournamentId}")
+    public ResponseEntity<?> getTournament(@PathVariable String tournamentId) {
+        Map<String, Object> tournament = tournamentService.getTournament(tournamentId);
+        if (tournament == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(tournament);
+    }
+}
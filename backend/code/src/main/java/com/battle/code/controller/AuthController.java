@@ -2,8 +2,8 @@ package com.battle.code.controller;
 
 import com.battle.code.domain.User;
 import com.battle.code.dto.LoginRequestDto;
-import com.battle.code.repository.UserRepository;
 import com.battle.code.service.AuthService;
+import com.battle.code.service.UserProfileCache;
 import com.battle.code.security.JwtTokenProvider;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
@@ -24,7 +24,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private static final Logger log =
             LoggerFactory.getLogger(AuthController.class);
 
@@ -104,17 +104,18 @@ public class AuthController {
 
         log.debug("[ME] Request - userId={}", userId);
 
-        User user = userRepository.findById(userId)
+        // 프로필 캐시 (만료 전까지 DB 조회 없음)
+        UserProfileCache.Profile user = userProfileCache.get(userId)
                 .orElseThrow(() -> {
                     log.error("[ME] User not found - userId={}", userId);
                     return new RuntimeException("User not found");
                 });
 
         return ResponseEntity.ok(Map.of(
-                "userId", user.getId(),
-                "nickname", user.getNickname(),
-                "role", user.getRole(),
-                "provider", user.getProvider() != null ? user.getProvider() : "GUEST"
+                "userId", user.userId(),
+                "nickname", user.nickname(),
+                "role", user.role(),
+                "provider", user.provider() != null ? user.provider() : "GUEST"
         ));
     }
 
@@ -1,9 +1,12 @@
 package com.battle.code.controller;
 
+import com.battle.code.dto.MatchJobDto;
 import com.battle.code.dto.RunRequestDto;
+import com.battle.code.service.LandGrabJobService;
 import com.battle.code.service.LandGrabService;
-import com.battle.code.service.MatchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,7 +22,7 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class LandGrabMatchController {
     private final LandGrabService landGrabService;
-    private final MatchService matchService;
+    private final LandGrabJobService landGrabJobService;
     private static final Logger log =
             LoggerFactory.getLogger(LandGrabMatchController.class);
 
@@ -55,38 +58,7 @@ public class LandGrabMatchController {
                 request.getDifficulty());
 
         try {
-            Map<String, Object> result = landGrabService.runMatch(
-                    request.getMatchId(),
-                    request.getUserCode(),
-                    request.getLanguage(),
-                    request.getDifficulty()
-            );
-
-            log.debug("[LAND_GRAB_RUN] Result keys={}", result.keySet());
-
-            if (userDetails != null) {
-                try {
-                    log.info("[MATCH_SAVE] Attempt - userId={}, matchId={}",
-                            userId, request.getMatchId());
-
-                    matchService.saveMatchResult(
-                            userId,
-                            request.getMatchId(),
-                            result,
-                            request.getUserCode(),
-                            request.getLanguage() != null ? request.getLanguage() : "python",
-                            request.getDifficulty()
-                    );
-
-                    log.info("[MATCH_SAVE] Success - userId={}, matchId={}",
-                            userId, request.getMatchId());
-                } catch (Exception e) {
-                    log.error("[MATCH_SAVE] Failed - userId={}, matchId={}",
-                            userId, request.getMatchId(), e);
-                }
-            } else {
-                log.warn("[MATCH_SAVE] Skipped - anonymous user");
-            }
+            Map<String, Object> result = landGrabJobService.runAndSave(userId, request);
 
             return ResponseEntity.ok(result);
 
@@ -97,6 +69,49 @@ public class LandGrabMatchController {
         }
     }
 
+    /**
+     * 코드 제출 및 비동기 실행
+     * - jobId 를 즉시 반환 (202), 진행 상태는 /topic/job/{jobId} 구독 또는 GET /jobs/{jobId} 로 확인
+     */
+    @PostMapping("/run/async")
+    public ResponseEntity<?> runMatchAsync(@RequestBody RunRequestDto request,
+                                           @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = null;
+        if (userDetails != null) {
+            userId = Long.parseLong(userDetails.getUsername());
+        }
+
+        log.info("[LAND_GRAB_RUN_ASYNC] Request - matchId={}, userId={}, lang={}, diff={}",
+                request.getMatchId(),
+                userId,
+                request.getLanguage(),
+                request.getDifficulty());
+
+        try {
+            MatchJobDto job = landGrabJobService.submit(userId, request);
+            return ResponseEntity.accepted().body(job);
+
+        } catch (TaskRejectedException e) {
+            log.warn("[LAND_GRAB_RUN_ASYNC] Rejected - executor queue full, matchId={}",
+                    request.getMatchId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Too many running matches. Try again later."));
+        }
+    }
+
+    // 비동기 실행 작업 상태 조회
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId,
+                                    @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = userDetails != null ? Long.parseLong(userDetails.getUsername()) : null;
+
+        MatchJobDto job = landGrabJobService.getJob(jobId, userId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
     @PostMapping("/compile")
     public ResponseEntity<?> compileMatch(@RequestBody RunRequestDto request) {
 
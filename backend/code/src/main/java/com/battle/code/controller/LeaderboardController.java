@@ -0,0 +1,46 @@
+package com.battle.code.controller;
+
+import com.battle.code.service.RatingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final RatingService ratingService;
+
+    // 상위 N명 (gameType: LAND_GRAB)
+    @GetMapping("/{gameType}")
+    public ResponseEntity<?> getTop(@PathVariable String gameType,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ratingService.getTop(gameType.toUpperCase(), Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+
+    // 내 순위와 위아래 around 명
+    @GetMapping("/{gameType}/me")
+    public ResponseEntity<?> getMyRank(@PathVariable String gameType,
+                                       @RequestParam(defaultValue = "5") int around,
+                                       @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Long userId = Long.parseLong(userDetails.getUsername());
+
+        Map<String, Object> result = ratingService.getAround(gameType.toUpperCase(), userId,
+                Math.max(0, Math.min(around, MAX_LIMIT / 2)));
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,50 @@
+package com.battle.code.controller;
+
+import com.battle.code.dto.MatchHistoryPageDto;
+import com.battle.code.service.MatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/match/history")
+@RequiredArgsConstructor
+public class MatchHistoryController {
+
+    private final MatchService matchService;
+
+    /**
+     * 내 전적 조회 (최신순)
+     * - 다음 페이지는 응답의 nextCursor 를 cursor 로 전달
+     * - 필터: gameType (LAND_GRAB), mode (AI, PVP, TOURNAMENT), result (WIN, LOSE, DRAW)
+     */
+    @GetMapping
+    public ResponseEntity<?> getHistory(@AuthenticationPrincipal UserDetails userDetails,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size,
+                                        @RequestParam(required = false) String gameType,
+                                        @RequestParam(required = false) String mode,
+                                        @RequestParam(required = false) String result) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Long userId = Long.parseLong(userDetails.getUsername());
+
+        try {
+            MatchHistoryPageDto page = matchService.getMatchHistory(userId, upper(gameType), upper(mode), upper(result),
+                    cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private String upper(String value) {
+        return value != null && !value.isBlank() ? value.toUpperCase() : null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.battle.code.controller;
+
+import com.battle.code.service.ReplayService;
+import com.battle.code.service.ReplayService.ReplayMeta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.*;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/replays")
+@RequiredArgsConstructor
+public class ReplayController {
+
+    // 저장된 리플레이는 변경되지 않음
+    private static final CacheControl CACHE = CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
+
+    private final ReplayService replayService;
+
+    /**
+     * 리플레이 조회
+     * - fromTurn/toTurn 중 하나라도 있으면: 해당 구간 턴 로그 (JSON, 필요한 키프레임 구간만 읽음)
+     * - 없으면: 원본 스트리밍
+     *   압축 저장된 행: X-Replay-Format: replay-v1 (ReplayCodec 포맷), gzip 을 받는 클라이언트에는 압축된 그대로 전송 (Range 지원)
+     *   구버전 행: full_log 내용에 따라 X-Replay-Format: replay-v1 (압축 포맷 텍스트) 또는 json (턴 배열)
+     * - 모든 응답에 ETag, If-None-Match 일치 시 304
+     * - 해당 매치의 참가자 또는 관리자만 조회 가능 (그 외에는 존재 여부도 노출하지 않도록 404)
+     */
+    @GetMapping("/{matchUuid}")
+    public ResponseEntity<?> getReplay(@PathVariable String matchUuid,
+                                       @RequestParam(required = false) Integer fromTurn,
+                                       @RequestParam(required = false) Integer toTurn,
+                                       @RequestHeader HttpHeaders headers,
+                                       @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        if (!canView(matchUuid, userDetails)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ReplayMeta meta = replayService.findMeta(matchUuid);
+        if (meta == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (fromTurn != null || toTurn != null) {
+            return getTurns(matchUuid, meta, fromTurn, toTurn, headers);
+        }
+        return getRaw(matchUuid, meta, headers);
+    }
+
+    private boolean canView(String matchUuid, UserDetails userDetails) {
+        if (userDetails == null) return false;
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (admin) return true;
+        try {
+            return replayService.isParticipant(matchUuid, Long.parseLong(userDetails.getUsername()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<?> getTurns(String matchUuid, ReplayMeta meta, Integer fromTurn, Integer toTurn,
+                                       HttpHeaders headers) throws IOException {
+        int from = fromTurn != null ? Math.max(0, fromTurn) : 0;
+        int to = toTurn != null ? toTurn : Integer.MAX_VALUE;
+        if (to < from) {
+            return ResponseEntity.badRequest().body(Map.of("error", "toTurn must be >= fromTurn"));
+        }
+
+        String etag = etag(matchUuid, meta.codec() + "." + from + "-" + (toTurn != null ? to : "end"));
+        if (notModified(headers, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE)
+                .body(replayService.readTurns(matchUuid, meta, from, to));
+    }
+
+    private ResponseEntity<?> getRaw(String matchUuid, ReplayMeta meta, HttpHeaders headers) {
+        boolean legacy = meta.isLegacy();
+        boolean gzipped = !legacy && acceptsGzip(headers);
+        String format = meta.codec().split("\\+")[0];
+
+        String etag = etag(matchUuid, gzipped ? meta.codec() : format);
+        if (notModified(headers, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE).build();
+        }
+
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentType(MediaType.APPLICATION_JSON);
+        responseHeaders.setETag(etag);
+        responseHeaders.setCacheControl(CACHE);
+        responseHeaders.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        responseHeaders.set("X-Replay-Format", format);
+
+        if (!gzipped) {
+            return ResponseEntity.ok().headers(responseHeaders)
+                    .body((StreamingResponseBody) out -> replayService.stream(matchUuid, false, out));
+        }
+
+        // 압축된 저장 바이트 그대로 전송 -> 바이트 범위 요청 지원
+        long length = meta.payloadLength();
+        responseHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        HttpRange range = singleRange(headers, etag);
+        if (range == null) {
+            responseHeaders.setContentLength(length);
+            return ResponseEntity.ok().headers(responseHeaders)
+                    .body((StreamingResponseBody) out -> replayService.stream(matchUuid, true, out));
+        }
+
+        long start = range.getRangeStart(length);
+        if (start >= length) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+        long end = range.getRangeEnd(length);
+
+        responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        responseHeaders.setContentLength(end - start + 1);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(responseHeaders)
+                .body((StreamingResponseBody) out -> replayService.streamRange(matchUuid, start, end - start + 1, out));
+    }
+
+    // 단일 범위 요청만 처리 (여러 범위나 잘못된 헤더, If-Range 불일치는 전체 전송)
+    private HttpRange singleRange(HttpHeaders headers, String etag) {
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) return null;
+        try {
+            List<HttpRange> ranges = headers.getRange();
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean acceptsGzip(HttpHeaders headers) {
+        String acceptEncoding = headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private boolean notModified(HttpHeaders headers, String etag) {
+        String ifNoneMatch = headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag));
+    }
+
+    private String etag(String matchUuid, String variant) {
+        return "\"" + matchUuid + "." + variant + "\"";
+    }
+}
@@ -0,0 +1,30 @@
+package com.battle.code.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 제출 코드 원문 (내용 주소 방식)
+ * - hash = SHA-256(content), 같은 코드는 한 번만 저장 (CodeBlobService 가 INSERT IGNORE 로 기록)
+ * - match_player.code_hash 가 참조
+ */
+@Entity
+@Table(name = "code_blob")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CodeBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String content;
+
+    private Integer contentLength;
+
+    private LocalDateTime createdAt;
+}
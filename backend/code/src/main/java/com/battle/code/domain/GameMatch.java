@@ -7,15 +7,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "game_match")
+@Table(name = "game_match", indexes = {
+        @Index(name = "idx_game_match_played", columnList = "played_at, id")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class GameMatch {
+    // ID 블록 크기 (game_match / match_player / match_replay 공통, MatchService.alignIdSequences 참고)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_match_seq")
+    @SequenceGenerator(name = "game_match_seq", sequenceName = "game_match_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id; // 미리 할당받은 ID 블록 사용 -> 배치 INSERT 가능 (MySQL 은 game_match_seq 테이블로 동작)
 
     @Column(unique = true)
     private String matchUuid; // 프론트와 공유하는 Match ID
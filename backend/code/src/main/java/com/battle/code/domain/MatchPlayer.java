@@ -3,15 +3,22 @@ package com.battle.code.domain;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "match_player")
+@Table(name = "match_player", indexes = {
+        // 전적 조회 키셋 페이지네이션 (user_id, [result,] played_at, game_match_id) 범위 스캔
+        @Index(name = "idx_match_player_user_played", columnList = "user_id, played_at, game_match_id"),
+        @Index(name = "idx_match_player_user_result_played", columnList = "user_id, result, played_at, game_match_id")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class MatchPlayer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_player_seq")
+    @SequenceGenerator(name = "match_player_seq", sequenceName = "match_player_seq", allocationSize = GameMatch.ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,7 +36,28 @@ public class MatchPlayer {
     private Integer score;
 
     @Column(columnDefinition = "TEXT")
-    private String submittedCode; // 유저가 제출한 코드
+    private String submittedCode; // 구버전 기록의 제출 코드 원문 (신규 기록은 code_hash 로 참조, CodeBlobService 가 점진적으로 이전)
+
+    @Column(length = 64)
+    private String codeHash; // 제출한 코드 (code_blob.hash), 코드 없이 끝난 경기는 null
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "code_hash", insertable = false, updatable = false)
+    private CodeBlob codeBlob;
 
     private String language; // "python", "java" 등
+
+    private LocalDateTime playedAt; // game_match.played_at 복사본 (전적 정렬/페이지네이션용)
+
+    // 제출 코드 원문 (code_blob 우선, 구버전 기록은 submittedCode)
+    public String resolveCode() {
+        return codeBlob != null ? codeBlob.getContent() : submittedCode;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        if (playedAt == null) {
+            playedAt = gameMatch != null && gameMatch.getPlayedAt() != null ? gameMatch.getPlayedAt() : LocalDateTime.now();
+        }
+    }
 }
\ No newline at end of file
@@ -11,12 +11,23 @@ import lombok.*;
 @Builder
 public class MatchReplay {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_replay_seq")
+    @SequenceGenerator(name = "match_replay_seq", sequenceName = "match_replay_seq", allocationSize = GameMatch.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Lob
     @Column(columnDefinition = "LONGTEXT")
-    private String fullLog; // 전체 리플레이 로그 JSON
+    private String fullLog; // 구버전 리플레이 로그 (턴 배열 JSON, codec 이 null 인 행)
+
+    @Column(length = 32)
+    private String codec; // payload 인코딩 (예: replay-v1+gzip)
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] payload; // 압축된 리플레이 (ReplayService 로 스트리밍 조회)
+
+    @Column(columnDefinition = "TEXT")
+    private String turnIndex; // 키프레임 구간별 [시작 턴, payload 오프셋, 길이] (JSON)
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game_match_id")
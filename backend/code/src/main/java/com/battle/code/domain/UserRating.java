@@ -0,0 +1,39 @@
+package com.battle.code.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_rating",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_rating_user_game", columnNames = {"user_id", "game_type"}))
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserRating {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "game_type", nullable = false)
+    private String gameType; // "LAND_GRAB"
+
+    private int rating; // Elo
+
+    private int gamesPlayed;
+    private int wins;
+    private int losses;
+    private int draws;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() { this.updatedAt = LocalDateTime.now(); }
+}
@@ -0,0 +1,18 @@
+package com.battle.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MatchEntrant {
+    private String entrantId;    // "sub-{matchPlayerId}" 또는 "ai-{difficulty}"
+    private Long userId;         // AI 봇은 null
+    private String code;         // 사용자 코드 (AI 봇은 null)
+    private String language;
+    private String aiDifficulty; // "easy", "normal", "hard" (사용자 코드면 null)
+
+    public boolean isAi() {
+        return aiDifficulty != null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.battle.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class MatchJobDto {
+    private String jobId;
+    private String matchId;
+    private String status;     // QUEUED, RUNNING, DONE, FAILED
+    private Map<String, Object> result;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+}
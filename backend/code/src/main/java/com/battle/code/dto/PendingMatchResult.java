@@ -0,0 +1,40 @@
+package com.battle.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 저장 대기 중인 매치 결과 (MatchResultWriter 스풀 파일에 JSON 으로 기록)
+ * - mode: PVP (p1, p2 모두 유저) / AI (p2 는 aiDifficulty 난이도의 봇)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingMatchResult {
+    private String mode;
+    private String matchUuid;
+    private Long p1UserId;
+    private Long p2UserId;       // AI 전은 null
+    private String p1Code;
+    private String p1Lang;
+    private String p2Code;       // AI 전은 null
+    private String p2Lang;
+    private String aiDifficulty; // PvP 는 null
+    private Map<String, Object> result; // referee 결과 (winner, final_scores, logs ...)
+    private int attempts;        // 저장 시도 횟수
+
+    public static PendingMatchResult pvp(String matchUuid, Long p1UserId, Long p2UserId, Map<String, Object> result,
+                                         String p1Code, String p1Lang, String p2Code, String p2Lang) {
+        return new PendingMatchResult("PVP", matchUuid, p1UserId, p2UserId, p1Code, p1Lang, p2Code, p2Lang,
+                null, result, 0);
+    }
+
+    public static PendingMatchResult ai(String matchUuid, Long userId, Map<String, Object> result,
+                                        String code, String language, String difficulty) {
+        return new PendingMatchResult("AI", matchUuid, userId, null, code, language, null, null,
+                difficulty, result, 0);
+    }
+}
@@ -0,0 +1,14 @@
+package com.battle.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class TournamentMatchDto {
+    private String matchUuid;
+    private MatchEntrant p1;
+    private MatchEntrant p2;
+    private Map<String, Object> result; // referee 결과 (winner, final_scores, p1_error ...)
+}
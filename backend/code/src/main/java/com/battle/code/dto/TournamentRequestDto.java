@@ -0,0 +1,12 @@
+package com.battle.code.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class TournamentRequestDto {
+    private String format;             // "ROUND_ROBIN", "SWISS"
+    private Integer rounds;            // SWISS 라운드 수 (기본: log2(참가자 수) 올림)
+    private List<Long> submissionIds;  // 참가시킬 MatchPlayer id 목록 (저장된 제출 코드)
+    private List<String> aiBots;       // 참가시킬 AI 난이도 ("easy", "normal", "hard")
+}
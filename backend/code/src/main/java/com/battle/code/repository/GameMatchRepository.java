@@ -2,20 +2,44 @@ package com.battle.code.repository;
 
 import com.battle.code.domain.GameMatch;
 import com.battle.code.dto.MatchListDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface GameMatchRepository extends JpaRepository<GameMatch, Long> {
 
-    // Entity 대신 DTO로 변환해서 조회
+    /**
+     * 전적 조회 (키셋 페이지네이션)
+     * - (playedAt, matchId) 내림차순, 커서보다 이전 경기만 조회
+     * - 정렬/커서 컬럼은 모두 match_player 쪽 값 사용 -> idx_match_player_user_(result_)played 범위 스캔
+     * - 필터/커서가 null 이면 조건 무시
+     */
     @Query("SELECT new com.battle.code.dto.MatchListDto(" +
-            "m.id, m.matchUuid, m.gameType, mp.result, mp.score, m.playedAt) " +
+            "m.id, m.matchUuid, m.gameType, mp.result, mp.score, mp.playedAt) " +
             "FROM MatchPlayer mp " +
             "JOIN mp.gameMatch m " +
             "WHERE mp.user.id = :userId " +
-            "ORDER BY m.playedAt DESC")
-    List<MatchListDto> findMatchHistoryLite(@Param("userId") Long userId);
-}
\ No newline at end of file
+            "AND (:result IS NULL OR mp.result = :result) " +
+            "AND (:gameType IS NULL OR m.gameType = :gameType) " +
+            "AND (:mode IS NULL OR m.mode = :mode) " +
+            "AND (:cursorPlayedAt IS NULL OR mp.playedAt < :cursorPlayedAt " +
+            "     OR (mp.playedAt = :cursorPlayedAt AND mp.gameMatch.id < :cursorMatchId)) " +
+            "ORDER BY mp.playedAt DESC, mp.gameMatch.id DESC")
+    List<MatchListDto> findMatchHistoryPage(@Param("userId") Long userId,
+                                            @Param("gameType") String gameType,
+                                            @Param("mode") String mode,
+                                            @Param("result") String result,
+                                            @Param("cursorPlayedAt") LocalDateTime cursorPlayedAt,
+                                            @Param("cursorMatchId") Long cursorMatchId,
+                                            Pageable pageable);
+
+    // 이미 저장된 matchUuid
+    @Query("SELECT m.matchUuid FROM GameMatch m WHERE m.matchUuid IN :matchUuids")
+    Set<String> findExistingMatchUuids(@Param("matchUuids") Collection<String> matchUuids);
+}
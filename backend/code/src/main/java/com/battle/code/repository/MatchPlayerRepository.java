@@ -0,0 +1,22 @@
+package com.battle.code.repository;
+
+import com.battle.code.domain.MatchPlayer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MatchPlayerRepository extends JpaRepository<MatchPlayer, Long> {
+
+    // 제출 코드와 작성자를 한 번에 조회 (토너먼트 참가자 로딩용)
+    @Query("SELECT mp FROM MatchPlayer mp LEFT JOIN FETCH mp.user LEFT JOIN FETCH mp.codeBlob WHERE mp.id IN :ids")
+    List<MatchPlayer> findAllWithUserByIdIn(@Param("ids") List<Long> ids);
+
+    // played_at 컬럼 추가 이전 기록 채우기
+    @Modifying
+    @Query(value = "UPDATE match_player mp JOIN game_match m ON mp.game_match_id = m.id " +
+            "SET mp.played_at = m.played_at WHERE mp.played_at IS NULL", nativeQuery = true)
+    int backfillPlayedAt();
+}
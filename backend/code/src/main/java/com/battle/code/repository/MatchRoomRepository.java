@@ -0,0 +1,188 @@
+package com.battle.code.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * PvP 방/세션 상태 (Redis)
+ * - 방: match_room:{matchId} 해시, 읽기는 HGETALL 한 번, 쓰기는 스크립트 한 번 (필드 저장 + TTL 갱신)
+ * - user_session:{userId} -> matchId, websocket_session:{sessionId} -> userId, socket_game:{sessionId} -> matchId
+ * - 모든 키에 TTL 적용 (정리되지 못한 방/세션도 만료되어 사라짐)
+ * - 방 생성은 대기열 제거와 함께 MatchingService 의 매칭 스크립트에서 처리 (같은 키 이름/TTL 사용)
+ */
+@Repository
+public class MatchRoomRepository {
+
+    public static final String ROOM_PREFIX = "match_room:";
+    public static final String USER_SESSION_PREFIX = "user_session:";
+    public static final String SOCKET_USER_PREFIX = "websocket_session:";
+    public static final String SOCKET_GAME_PREFIX = "socket_game:";
+
+    private static final int SCAN_COUNT = 1000;
+
+    // KEYS: [room], ARGV: [ttlMs, field, value, ...] -> 방이 있을 때만 저장 후 전체 필드 반환 (만료된 방을 되살리지 않음)
+    private static final RedisScript<List> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return {}
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    // KEYS: [room, session_p1, session_p2], ARGV: [matchId] -> 유저 세션은 아직 이 매치를 가리킬 때만 삭제
+    private static final RedisScript<Long> DELETE_SCRIPT = new DefaultRedisScript<>("""
+            local deleted = redis.call('DEL', KEYS[1])
+            for i = 2, #KEYS do
+                if redis.call('GET', KEYS[i]) == ARGV[1] then
+                    deleted = deleted + redis.call('DEL', KEYS[i])
+                end
+            end
+            return deleted
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration roomTtl;
+    private final Duration sessionTtl;
+
+    public MatchRoomRepository(RedisTemplate<String, Object> redisTemplate,
+                               @Value("${room.ttl-ms:3600000}") long roomTtlMs,
+                               @Value("${room.session-ttl-ms:86400000}") long sessionTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.roomTtl = Duration.ofMillis(roomTtlMs);
+        this.sessionTtl = Duration.ofMillis(sessionTtlMs);
+    }
+
+    /**
+     * 방 상태
+     * - 코드/언어는 제출 전이면 null
+     */
+    public record MatchRoom(String matchId, String gameType, String p1, String p2, String mapData, String status,
+                            String p1Code, String p1Lang, String p2Code, String p2Lang) {
+
+        private static MatchRoom from(String matchId, Map<?, ?> fields) {
+            return new MatchRoom(matchId,
+                    (String) fields.get("gameType"),
+                    (String) fields.get("p1"),
+                    (String) fields.get("p2"),
+                    (String) fields.get("mapData"),
+                    (String) fields.get("status"),
+                    (String) fields.get("p1_code"),
+                    (String) fields.get("p1_lang"),
+                    (String) fields.get("p2_code"),
+                    (String) fields.get("p2_lang"));
+        }
+
+        // "p1" / "p2", 참가자가 아니면 null
+        public String roleOf(String userId) {
+            if (userId.equals(p1)) return "p1";
+            if (userId.equals(p2)) return "p2";
+            return null;
+        }
+
+        public boolean bothSubmitted() {
+            return p1Code != null && p2Code != null;
+        }
+    }
+
+    public static String roomKey(String matchId) {
+        return ROOM_PREFIX + matchId;
+    }
+
+    public static String userSessionKey(String userId) {
+        return USER_SESSION_PREFIX + userId;
+    }
+
+    public Duration getRoomTtl() {
+        return roomTtl;
+    }
+
+    public Duration getSessionTtl() {
+        return sessionTtl;
+    }
+
+    // 방 조회 (HGETALL 한 번, 없거나 만료됐으면 empty)
+    public Optional<MatchRoom> find(String matchId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(roomKey(matchId));
+        if (fields.get("p1") == null) return Optional.empty();
+        return Optional.of(MatchRoom.from(matchId, fields));
+    }
+
+    /**
+     * 제출 코드 저장 (role: p1/p2) 후 갱신된 방 반환
+     * - 저장과 TTL 갱신, 재조회를 스크립트 한 번으로 처리
+     * - 그 사이 방이 정리/만료됐으면 empty
+     */
+    public Optional<MatchRoom> saveSubmission(String matchId, String role, String code, String language) {
+        List<Object> flat = redisTemplate.execute(SAVE_SCRIPT, List.of(roomKey(matchId)),
+                String.valueOf(roomTtl.toMillis()), role + "_code", code, role + "_lang", language);
+        if (flat == null || flat.isEmpty()) return Optional.empty();
+
+        Map<Object, Object> fields = new HashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) fields.put(flat.get(i), flat.get(i + 1));
+        return Optional.of(MatchRoom.from(matchId, fields));
+    }
+
+    // 방과 두 유저의 매치 매핑 삭제
+    public void delete(MatchRoom room) {
+        redisTemplate.execute(DELETE_SCRIPT,
+                List.of(roomKey(room.matchId()), userSessionKey(room.p1()), userSessionKey(room.p2())),
+                room.matchId());
+    }
+
+    // STOMP 세션 -> 유저
+    public void bindSocketUser(String sessionId, String userId) {
+        redisTemplate.opsForValue().set(SOCKET_USER_PREFIX + sessionId, userId, sessionTtl);
+    }
+
+    public String findSocketUser(String sessionId) {
+        return (String) redisTemplate.opsForValue().get(SOCKET_USER_PREFIX + sessionId);
+    }
+
+    // STOMP 세션 -> 진행 중인 매치 (접속 종료 시 기권 처리용)
+    public void bindSocketGame(String sessionId, String matchId) {
+        redisTemplate.opsForValue().set(SOCKET_GAME_PREFIX + sessionId, matchId, roomTtl);
+    }
+
+    public String findSocketGame(String sessionId) {
+        return (String) redisTemplate.opsForValue().get(SOCKET_GAME_PREFIX + sessionId);
+    }
+
+    // 세션 매핑 정리 (DEL 한 번)
+    public void unbindSocket(String sessionId) {
+        redisTemplate.delete(List.of(SOCKET_USER_PREFIX + sessionId, SOCKET_GAME_PREFIX + sessionId));
+    }
+
+    /**
+     * 접두사별 키 개수 (SCAN, 운영 모니터링용)
+     * - 만료 없이 쌓이는 키가 있는지 확인
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (String prefix : List.of(ROOM_PREFIX, USER_SESSION_PREFIX, SOCKET_USER_PREFIX, SOCKET_GAME_PREFIX)) {
+            stats.put(prefix.substring(0, prefix.length() - 1), countKeys(prefix));
+        }
+        stats.put("roomTtlMs", roomTtl.toMillis());
+        stats.put("sessionTtlMs", sessionTtl.toMillis());
+        return stats;
+    }
+
+    private long countKeys(String prefix) {
+        long count = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(SCAN_COUNT).build())) {
+            while (cursor.hasNext()) {
+                cursor.next();
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,28 @@
+package com.battle.code.repository;
+
+import com.battle.code.domain.UserRating;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRatingRepository extends JpaRepository<UserRating, Long> {
+
+    // 레이팅 갱신용 (동시에 끝난 경기끼리 덮어쓰지 않도록 행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM UserRating r WHERE r.user.id = :userId AND r.gameType = :gameType")
+    Optional<UserRating> findForUpdate(@Param("userId") Long userId, @Param("gameType") String gameType);
+
+    @Query("SELECT DISTINCT r.gameType FROM UserRating r")
+    List<String> findGameTypes();
+
+    // 리더보드 재구성용 (id 순 페이지)
+    @Query("SELECT r FROM UserRating r WHERE r.gameType = :gameType AND r.id > :afterId ORDER BY r.id")
+    Slice<UserRating> findPage(@Param("gameType") String gameType, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -1,19 +1,33 @@
 package com.battle.code.scheduler;
 
-import com.battle.code.service.LandGrabService;
+import com.battle.code.service.MapPoolService;
+import com.battle.code.service.MatchMetrics;
+import com.battle.code.service.MatchSignalBus;
+import com.battle.code.service.MatchTracer;
 import com.battle.code.service.MatchingService;
+import com.battle.code.service.RatingService;
+import com.battle.code.service.SkillMatchmaker;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -21,95 +35,182 @@ import java.util.UUID;
 public class MatchingScheduler {
 
     private final MatchingService matchingService;
-    private final LandGrabService landGrabService;
+    private final MapPoolService mapPoolService;
+    private final RatingService ratingService;
+    private final SkillMatchmaker skillMatchmaker;
+    private final MatchMetrics matchMetrics;
+    private final MatchTracer matchTracer;
     private final SimpMessagingTemplate messagingTemplate;
     private final ObjectMapper objectMapper;
 
     private static final List<String> TARGET_GAMES = List.of("land_grab"); // 추가 예정
 
-    @Scheduled(fixedDelay = 1000)
+    // 아직 짝이 없는 유저가 남았을 때 재시도 간격 (대기시간에 따라 허용 레이팅 차이가 넓어짐)
+    @Value("${matching.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    // 매칭은 노드당 한 스레드에서만 실행, 같은 게임의 알림이 몰리면 한 번으로 합침
+    private final ScheduledExecutorService matchingLoop = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "matching-loop");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> retryScheduled = ConcurrentHashMap.newKeySet();
+
+    // 대기열 참가 알림 (같은 노드 또는 Redis Pub/Sub 로 전달된 다른 노드의 알림)
+    @EventListener
+    public void onQueueChanged(MatchSignalBus.QueueChanged event) {
+        signal(event.gameType());
+    }
+
+    // 알림 유실 대비 느린 주기 점검
+    @Scheduled(fixedDelayString = "${matching.sweep-interval-ms:5000}")
     public void checkMatchQueue() {
         // 등록된 모든 게임 타입에 대해 매칭 시도
         for (String gameType : TARGET_GAMES) {
-            processMatching(gameType);
+            signal(gameType);
         }
     }
 
-    private void processMatching(String gameType) {
+    private void signal(String gameType) {
+        if (!pending.add(gameType)) return; // 이미 대기 중인 실행이 있음
+        matchingLoop.execute(() -> {
+            pending.remove(gameType);
+            try {
+                if (processMatching(gameType)) scheduleRetry(gameType);
+            } catch (Exception e) {
+                log.error("Matching failed for [{}]: {}", gameType, e.getMessage());
+            }
+        });
+    }
+
+    private void scheduleRetry(String gameType) {
+        if (!retryScheduled.add(gameType)) return;
+        matchingLoop.schedule(() -> {
+            retryScheduled.remove(gameType);
+            signal(gameType);
+        }, retryDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matchingLoop.shutdownNow();
+    }
+
+    /**
+     * 배치 매칭
+     * - 대기열 앞쪽 batchSize 명을 조회해 레이팅 차이 기준으로 최대한 많이 짝지음
+     * - 대기열 제거와 방 생성은 Redis 스크립트 한 번으로 처리 (여러 노드가 동시에 돌려도 중복 매칭/유실 없음)
+     * - 그 사이 취소했거나 다른 노드가 먼저 매칭한 쌍은 건너뜀 (맵은 풀에 반납)
+     * - 반환: 매칭되지 못한 유저가 2명 이상 남았는지 (재시도 필요 여부)
+     */
+    private boolean processMatching(String gameType) {
         Long size = matchingService.getQueueSize(gameType);
+        long depth = size != null ? size : 0;
+        if (depth < 2) {
+            skillMatchmaker.recordTick(gameType, depth, 0, List.of());
+            return false;
+        }
 
-        if (size != null && size >= 2) {
-            log.debug("Matching users for [{}]... Queue Size: {}", gameType, size);
-
-            // 유저 꺼내기 (gameType 구분)
-            ZSetOperations.TypedTuple<Object> player1 = matchingService.popUserWithScore(gameType);
-            ZSetOperations.TypedTuple<Object> player2 = matchingService.popUserWithScore(gameType);
-
-            if (player1 != null && player2 != null) {
-                String user1Id = (String) player1.getValue();
-                String user2Id = (String) player2.getValue();
-                String matchId = UUID.randomUUID().toString();
-
-                try {
-                    // 맵 생성
-                    Map<String, Object> mapData = new HashMap<>();
-                    if ("land_grab".equals(gameType)) {
-                        mapData = generateValidLandGrabMap();
-
-                        if (mapData == null) {
-                            log.error("Failed to generate map for match {}", matchId);
-                            matchingService.returnToQueue(gameType, (String)player1.getValue(), player1.getScore());
-                            matchingService.returnToQueue(gameType, (String)player2.getValue(), player2.getScore());
-                            return;
-                        }
-
-                    } else {
-                        // snake 등 다른 게임 맵 생성 로직
-                    }
-
-                    String mapJson = objectMapper.writeValueAsString(mapData);
-
-                    // Redis 방 생성
-                    matchingService.createMatchRoom(matchId, gameType, user1Id, user2Id, mapJson);
-
-                    // p1에게 전송
-                    MatchSuccessEvent eventP1 = new MatchSuccessEvent(matchId, user1Id, user2Id, mapData, "p1");
-                    messagingTemplate.convertAndSend("/topic/match/" + user1Id, eventP1);
-
-                    // P2에게 전송
-                    MatchSuccessEvent eventP2 = new MatchSuccessEvent(matchId, user1Id, user2Id, mapData, "p2");
-                    messagingTemplate.convertAndSend("/topic/match/" + user2Id, eventP2);
-
-                    log.info("Match Found! Game: {}, ID: {}", gameType, matchId);
-
-                } catch (Exception e) {
-                    log.error("Error during match creation: {}", e.getMessage());
-                    // 에러 시 롤백
-                    matchingService.returnToQueue(gameType, user1Id, player1.getScore());
-                    matchingService.returnToQueue(gameType, user2Id, player2.getScore());
-                }
-
-            } else {
-                // 롤백 (gameType 전달)
-                if (player1 != null) matchingService.returnToQueue(gameType, (String) player1.getValue(), player1.getScore());
-                if (player2 != null) matchingService.returnToQueue(gameType, (String) player2.getValue(), player2.getScore());
-            }
+        List<ZSetOperations.TypedTuple<Object>> waiting = matchingService.peekOldest(gameType, skillMatchmaker.getBatchSize());
+        List<String> userIds = waiting.stream().map(t -> (String) t.getValue()).toList();
+        List<Integer> ratings = ratingService.getRatings(gameType.toUpperCase(), userIds);
+
+        List<SkillMatchmaker.Candidate> candidates = new ArrayList<>(waiting.size());
+        for (int i = 0; i < waiting.size(); i++) {
+            Double joinedAt = waiting.get(i).getScore();
+            candidates.add(new SkillMatchmaker.Candidate(userIds.get(i), joinedAt != null ? joinedAt : 0, ratings.get(i)));
         }
-    }
 
-    private Map<String, Object> generateValidLandGrabMap() {
-        for (int i = 0; i < 3; i++) {
+        long now = System.currentTimeMillis();
+        List<SkillMatchmaker.Pair> pairs = skillMatchmaker.pair(candidates, now);
+        log.debug("Matching users for [{}]... Queue Size: {}, Batch: {}, Pairs: {}", gameType, depth, candidates.size(), pairs.size());
+
+        // 쌍마다 맵 준비 (실패한 쌍은 대기열에 그대로 남음)
+        List<MatchingService.RoomRequest> requests = new ArrayList<>();
+        Map<String, Map<String, Object>> maps = new HashMap<>();
+        Map<String, SkillMatchmaker.Pair> pairByMatch = new HashMap<>();
+        for (SkillMatchmaker.Pair pair : pairs) {
+            String matchId = UUID.randomUUID().toString();
+            matchTracer.start(matchId);
+            matchTracer.record(matchId, (long) pair.p1().joinedAt(), "QUEUE_JOIN", "p1=" + pair.p1().userId());
+            matchTracer.record(matchId, (long) pair.p2().joinedAt(), "QUEUE_JOIN", "p2=" + pair.p2().userId());
+            matchTracer.record(matchId, now, "PAIRED", pair.p1().rating() + " vs " + pair.p2().rating());
+            Map<String, Object> mapData = createMapData(gameType, matchId);
+            if (mapData == null) continue;
+
             try {
-                Map<String, Object> map = landGrabService.startMatch();
-                if (map != null && map.containsKey("walls") && map.containsKey("coins")) {
-                    List<?> walls = (List<?>) map.get("walls");
-                    if (!walls.isEmpty()) return map;
-                }
+                requests.add(new MatchingService.RoomRequest(matchId, pair.p1().userId(), pair.p2().userId(),
+                        objectMapper.writeValueAsString(mapData)));
+                maps.put(matchId, mapData);
+                pairByMatch.put(matchId, pair);
             } catch (Exception e) {
-                log.warn("⚠️ Map generation failed (attempt {}): {}", i+1, e.getMessage());
+                log.error("Error during match creation: {}", e.getMessage());
             }
         }
-        return null;
+
+        Set<String> created;
+        try {
+            created = matchingService.createMatchRooms(gameType, requests);
+        } catch (Exception e) {
+            log.error("Error during match creation: {}", e.getMessage());
+            created = Set.of();
+        }
+
+        List<Long> waits = new ArrayList<>();
+        for (MatchingService.RoomRequest request : requests) {
+            String matchId = request.matchId();
+            if (!created.contains(matchId)) {
+                if ("land_grab".equals(gameType)) mapPoolService.returnLandGrabMap(maps.get(matchId));
+                matchTracer.finish(matchId, "ROOM_CREATE_FAILED", null);
+                continue;
+            }
+            matchTracer.record(matchId, "ROOM_CREATED", null);
+
+            SkillMatchmaker.Pair pair = pairByMatch.get(matchId);
+            notifyMatched(gameType, matchId, pair, maps.get(matchId));
+            waits.add(now - (long) pair.p1().joinedAt());
+            waits.add(now - (long) pair.p2().joinedAt());
+        }
+
+        skillMatchmaker.recordTick(gameType, depth, created.size(), waits);
+        for (long wait : waits) {
+            matchMetrics.record(MatchMetrics.QUEUE_WAIT, "PVP", MatchMetrics.NONE, TimeUnit.MILLISECONDS.toNanos(wait));
+        }
+        return depth - created.size() * 2L >= 2;
+    }
+
+    private Map<String, Object> createMapData(String gameType, String matchId) {
+        Map<String, Object> mapData = new HashMap<>();
+        if ("land_grab".equals(gameType)) {
+            // 사전 생성된 맵 사용 (풀이 비었을 때만 즉시 생성)
+            mapData = mapPoolService.takeLandGrabMap();
+
+            if (mapData == null) {
+                log.error("Failed to generate map for match {}", matchId);
+            }
+
+        } else {
+            // snake 등 다른 게임 맵 생성 로직
+        }
+        return mapData;
+    }
+
+    private void notifyMatched(String gameType, String matchId, SkillMatchmaker.Pair pair, Map<String, Object> mapData) {
+        String user1Id = pair.p1().userId();
+        String user2Id = pair.p2().userId();
+
+        // p1에게 전송
+        MatchSuccessEvent eventP1 = new MatchSuccessEvent(matchId, user1Id, user2Id, mapData, "p1");
+        messagingTemplate.convertAndSend("/topic/match/" + user1Id, eventP1);
+
+        // P2에게 전송
+        MatchSuccessEvent eventP2 = new MatchSuccessEvent(matchId, user1Id, user2Id, mapData, "p2");
+        messagingTemplate.convertAndSend("/topic/match/" + user2Id, eventP2);
+        matchTracer.record(matchId, "MATCH_NOTIFIED", null);
+
+        log.info("Match Found! Game: {}, ID: {}, Ratings: {} vs {}", gameType, matchId, pair.p1().rating(), pair.p2().rating());
     }
 
     public record MatchSuccessEvent(String matchId, String p1Id, String p2Id, Map<String, Object> mapData, String myRole) {}
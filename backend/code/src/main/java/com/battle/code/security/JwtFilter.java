@@ -1,5 +1,6 @@
 package com.battle.code.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -24,9 +25,10 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = resolveToken(request);
 
         try {
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                // DB 조회 쿼리
-                Authentication auth = jwtTokenProvider.getAuthentication(token);
+            Claims claims = token != null ? jwtTokenProvider.parseClaims(token) : null;
+            if (claims != null) {
+                // 클레임으로 인증 객체 생성 (DB 조회 없음)
+                Authentication auth = jwtTokenProvider.getAuthentication(claims);
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
         } catch (Exception e) {
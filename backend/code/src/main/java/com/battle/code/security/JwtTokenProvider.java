@@ -4,21 +4,24 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 
+/**
+ * JWT 발급/검증
+ * - 토큰은 한 번만 파싱 (parseClaims), 인증 객체는 클레임(sub=userId, role)으로 생성 -> 요청마다 DB 조회 없음
+ * - 역할 변경은 토큰 재발급(재로그인) 시 반영됨
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private final long EXPIRATION_TIME = 1000 * 60 * 60 * 24 * 7; // 7일;
-    private final UserDetailsService userDetailsService;
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build(); // 스레드 안전, 재사용
 
     // 토큰 생성
     public String createToken(Long userId, String role) {
@@ -42,26 +45,28 @@ public class JwtTokenProvider {
         return null;
     }
 
-    // 토큰 검증 & ID 추출
-    public boolean validateToken(String token) {
+    // 토큰 검증 + 클레임 추출 (서명 불일치/만료/형식 오류면 null)
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
 
-    public Long getUserId(String token) {
-        return Long.parseLong(Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject());
+    public Long getUserId(Claims claims) {
+        return Long.parseLong(claims.getSubject());
     }
 
-    public Authentication getAuthentication(String token) {
-        // 토큰에서 userId 추출 -> DB 조회 -> UserDetails 반환
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUserId(token).toString());
+    public Authentication getAuthentication(Claims claims) {
+        // 클레임 -> UserDetails (username = userId, 비밀번호 없음)
+        String role = claims.get("role", String.class);
+        UserDetails userDetails = User.withUsername(claims.getSubject())
+                .password("")
+                .roles(role != null ? role : "USER")
+                .build();
 
         // 인증 객체 생성
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
-}
\ No newline at end of file
+}
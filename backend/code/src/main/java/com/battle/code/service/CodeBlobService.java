@@ -0,0 +1,111 @@
+package com.battle.code.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 제출 코드 중복 제거 저장소 (code_blob)
+ * - 코드는 SHA-256(content) 를 키로 한 번만 저장, match_player 는 code_hash 만 보관
+ * - 같은 봇으로 여러 번 대전해도 원문은 한 행
+ * - code_hash 는 코드 단위 캐시 키로도 사용 (토너먼트 참가자 중복 제거 등)
+ * - match_player.submitted_code 에 원문이 남아 있는 구버전 기록은 주기적으로 code_blob 으로 이전
+ */
+@Slf4j
+@Service
+public class CodeBlobService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int migrateBatchSize;
+
+    public CodeBlobService(JdbcTemplate jdbcTemplate,
+                           @Value("${code-blob.migrate-batch-size:500}") int migrateBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.migrateBatchSize = migrateBatchSize;
+    }
+
+    public static String hashOf(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 코드 원문 저장 (이미 있는 코드는 건너뜀)
+     * - 반환: 원문 -> hash
+     * - 기존 hash 는 한 번에 조회하고 없는 것만 INSERT IGNORE 배치 (동시에 같은 코드를 저장해도 충돌 없음)
+     * - 호출한 트랜잭션 안에서 실행 (match_player INSERT 전에 호출)
+     */
+    @Transactional
+    public Map<String, String> store(Collection<String> contents) {
+        Map<String, String> hashes = new HashMap<>();
+        for (String content : contents) {
+            if (content != null) hashes.putIfAbsent(content, hashOf(content));
+        }
+        if (hashes.isEmpty()) return hashes;
+
+        List<String> allHashes = new ArrayList<>(new HashSet<>(hashes.values()));
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT hash FROM code_blob WHERE hash IN (" + String.join(",", Collections.nCopies(allHashes.size(), "?")) + ")",
+                String.class, allHashes.toArray()));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        hashes.forEach((content, hash) -> {
+            if (existing.add(hash)) rows.add(new Object[]{hash, content, content.length(), now});
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT IGNORE INTO code_blob (hash, content, content_length, created_at) VALUES (?, ?, ?, ?)", rows);
+        }
+        return hashes;
+    }
+
+    /**
+     * 구버전 기록 이전 (submitted_code -> code_blob + code_hash)
+     * - 한 번에 migrateBatchSize 행씩, 남은 행이 없으면 아무것도 하지 않음
+     */
+    @Scheduled(fixedDelayString = "${code-blob.migrate-interval-ms:10000}", initialDelay = 60000)
+    @Transactional
+    public void migrateLegacyCode() {
+        List<Map<String, Object>> legacy = jdbcTemplate.queryForList(
+                "SELECT id, submitted_code FROM match_player WHERE code_hash IS NULL AND submitted_code IS NOT NULL LIMIT ?",
+                migrateBatchSize);
+        if (legacy.isEmpty()) return;
+
+        Map<String, String> hashes = store(legacy.stream().map(row -> (String) row.get("submitted_code")).toList());
+
+        List<Object[]> updates = new ArrayList<>(legacy.size());
+        for (Map<String, Object> row : legacy) {
+            updates.add(new Object[]{hashes.get((String) row.get("submitted_code")), row.get("id")});
+        }
+        jdbcTemplate.batchUpdate("UPDATE match_player SET code_hash = ?, submitted_code = NULL WHERE id = ?", updates);
+        log.info("[CodeBlob] Migrated {} legacy submissions ({} distinct)", legacy.size(), new HashSet<>(hashes.values()).size());
+    }
+
+    // 저장 현황 (행 수, 원문 총 길이, 참조 수 -> 중복 제거 비율)
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS blobs, COALESCE(SUM(content_length), 0) AS content_chars FROM code_blob"));
+        Long references = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM match_player WHERE code_hash IS NOT NULL", Long.class);
+        Long legacy = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM match_player WHERE code_hash IS NULL AND submitted_code IS NOT NULL", Long.class);
+        stats.put("references", references);
+        stats.put("legacyRows", legacy);
+        return stats;
+    }
+}
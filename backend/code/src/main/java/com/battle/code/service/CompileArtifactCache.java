@@ -0,0 +1,253 @@
+package com.battle.code.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 컴파일 산출물 캐시 (Content-addressed)
+ * - Key: SHA-256(language + 템플릿이 적용된 최종 소스)
+ * - Java 는 *.class, C/C++ 은 실행 파일을 {cacheDir}/{key}/ 에 보관
+ * - 플레이어 디렉토리에 복원해두면 referee.py 가 소스보다 최신인 산출물을 보고 컴파일을 생략함
+ * - 전체 용량이 maxBytes 를 넘으면 가장 오래 사용되지 않은 항목부터 삭제 (LRU)
+ * - 컴파일 실패도 key -> 에러 메시지로 기억 (메모리, 최대 maxFailures 개 LRU) -> 같은 코드의 별도 컴파일 실행 생략
+ */
+@Slf4j
+@Component
+public class CompileArtifactCache {
+
+    private static final String BINARY_NAME = "binary.out"; // C/C++ 실행 파일 저장 이름 (복원 시 {player}.out)
+
+    private final Path cacheDir;
+    private final long maxBytes;
+
+    // key -> 항목 크기 (access-order 로 LRU 순서 유지)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    // 컴파일 실패 key -> 에러 메시지 (access-order LRU, 재시작 시 초기화)
+    private final LinkedHashMap<String, String> failures;
+
+    public CompileArtifactCache(@Value("${compile.cache.dir:cache/artifacts}") String cacheDir,
+                                @Value("${compile.cache.max-bytes:268435456}") long maxBytes,
+                                @Value("${compile.cache.max-failures:1000}") int maxFailures) {
+        this.cacheDir = Paths.get(System.getProperty("user.dir")).resolve(cacheDir).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.failures = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxFailures;
+            }
+        };
+        loadIndex();
+    }
+
+    /**
+     * 캐시 키 생성
+     * - 컴파일이 필요 없는 언어(python, javascript)는 null
+     */
+    public String keyOf(String language, String finalCode) {
+        if (!isCompiled(language)) return null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(language.toLowerCase().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(finalCode.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // 히트/미스 통계에 포함하지 않는 존재 확인
+    public synchronized boolean contains(String key) {
+        return key != null && entries.containsKey(key);
+    }
+
+    // 컴파일 실패 기록 (같은 key 를 다시 컴파일하지 않도록)
+    public synchronized void storeFailure(String key, String error) {
+        if (key != null) failures.put(key, error);
+    }
+
+    // 기록된 컴파일 에러 (없으면 null)
+    public synchronized String failureOf(String key) {
+        return key != null ? failures.get(key) : null;
+    }
+
+    /**
+     * 캐시된 산출물을 플레이어 디렉토리에 복원
+     * - 소스 작성 이후에 복사되므로 산출물 mtime 이 소스보다 최신이 됨
+     */
+    public boolean restore(String key, Path playerDir, String player) {
+        if (key == null) return false;
+
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                misses++;
+                return false;
+            }
+            hits++;
+        }
+
+        Path entryDir = cacheDir.resolve(key);
+        try (Stream<Path> files = Files.list(entryDir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                String target = name.equals(BINARY_NAME) ? player + ".out" : name;
+                Path dest = playerDir.resolve(target);
+                Files.copy(file, dest, StandardCopyOption.REPLACE_EXISTING);
+                if (name.equals(BINARY_NAME)) dest.toFile().setExecutable(true, false);
+            }
+            log.debug("[ArtifactCache] Restored {} into {}", key, playerDir);
+            return true;
+        } catch (IOException e) {
+            log.warn("[ArtifactCache] Restore failed for {}: {}", key, e.getMessage());
+            evict(key);
+            return false;
+        }
+    }
+
+    /**
+     * 컴파일 성공 후 산출물 저장
+     * - 이미 캐시에 있으면 무시
+     * - 임시 디렉토리에 복사 후 rename 하여 반쯤 쓰인 항목이 보이지 않도록 함
+     */
+    public void store(String key, Path playerDir, String player, String language) {
+        if (key == null) return;
+        synchronized (this) {
+            if (entries.containsKey(key)) return;
+        }
+
+        List<Path> artifacts = findArtifacts(playerDir, player, language);
+        if (artifacts.isEmpty()) return;
+
+        Path tmpDir = cacheDir.resolve(key + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(tmpDir);
+            long size = 0;
+            for (Path artifact : artifacts) {
+                String name = artifact.getFileName().toString();
+                String target = name.equals(player + ".out") ? BINARY_NAME : name;
+                Files.copy(artifact, tmpDir.resolve(target));
+                size += Files.size(artifact);
+            }
+
+            Path entryDir = cacheDir.resolve(key);
+            try {
+                Files.move(tmpDir, entryDir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                deleteRecursively(tmpDir); // 동시에 다른 요청이 저장함
+                return;
+            }
+
+            synchronized (this) {
+                entries.put(key, size);
+                totalBytes += size;
+            }
+            log.debug("[ArtifactCache] Stored {} ({} bytes)", key, size);
+            evictIfNeeded();
+        } catch (IOException e) {
+            log.warn("[ArtifactCache] Store failed for {}: {}", key, e.getMessage());
+            deleteRecursively(tmpDir);
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("bytes", totalBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        return stats;
+    }
+
+    private List<Path> findArtifacts(Path playerDir, String player, String language) {
+        String lang = language.toLowerCase();
+        try (Stream<Path> files = Files.list(playerDir)) {
+            return files.filter(f -> {
+                String name = f.getFileName().toString();
+                return lang.equals("java") ? name.endsWith(".class") : name.equals(player + ".out");
+            }).toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private void evictIfNeeded() {
+        while (true) {
+            String eldest;
+            synchronized (this) {
+                if (totalBytes <= maxBytes || entries.isEmpty()) return;
+                eldest = entries.keySet().iterator().next();
+            }
+            evict(eldest);
+        }
+    }
+
+    private void evict(String key) {
+        synchronized (this) {
+            Long size = entries.remove(key);
+            if (size != null) totalBytes -= size;
+        }
+        deleteRecursively(cacheDir.resolve(key));
+        log.debug("[ArtifactCache] Evicted {}", key);
+    }
+
+    // 재시작 시 디스크에 남아있는 항목으로 인덱스 재구성 (최근 수정 순서)
+    private void loadIndex() {
+        try {
+            Files.createDirectories(cacheDir);
+            List<Path> dirs;
+            try (Stream<Path> list = Files.list(cacheDir)) {
+                dirs = list.filter(Files::isDirectory).toList();
+            }
+            List<Path> sorted = new ArrayList<>(dirs);
+            sorted.sort(Comparator.comparingLong(p -> p.toFile().lastModified()));
+            for (Path dir : sorted) {
+                String name = dir.getFileName().toString();
+                if (name.contains(".tmp-")) {
+                    deleteRecursively(dir);
+                    continue;
+                }
+                long size;
+                try (Stream<Path> files = Files.list(dir)) {
+                    size = files.mapToLong(f -> f.toFile().length()).sum();
+                }
+                entries.put(name, size);
+                totalBytes += size;
+            }
+            log.info("[ArtifactCache] Loaded {} entries ({} bytes) from {}", entries.size(), totalBytes, cacheDir);
+        } catch (IOException e) {
+            log.warn("[ArtifactCache] Failed to load cache index: {}", e.getMessage());
+        }
+    }
+
+    private boolean isCompiled(String language) {
+        if (language == null) return false;
+        return switch (language.toLowerCase()) {
+            case "java", "c", "cpp" -> true;
+            default -> false;
+        };
+    }
+
+    private void deleteRecursively(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.warn("[ArtifactCache] Failed to delete {}: {}", dir, e.getMessage());
+        }
+    }
+}
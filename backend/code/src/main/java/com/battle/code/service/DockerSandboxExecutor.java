@@ -0,0 +1,87 @@
+package com.battle.code.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Docker 로 referee 실행
+ * - 워밍 풀에서 컨테이너를 대여할 수 있으면 matchDir 내용을 복사해 넣고 docker exec 로 실행
+ *   (compile 모드는 종료 후 컴파일 결과를 matchDir 로 다시 복사)
+ * - 풀이 비어 있으면 matchDir 을 mountPoints 에 마운트한 단발 컨테이너로 실행
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sandbox.executor", havingValue = "docker", matchIfMissing = true)
+public class DockerSandboxExecutor implements SandboxExecutor {
+
+    private final SandboxContainerPool sandboxPool;
+
+    @Override
+    public Execution start(String gameType, Path matchDir, String mode, String... mountPoints) throws IOException, InterruptedException {
+        SandboxContainerPool.Lease lease = sandboxPool.lease();
+        try {
+            if (lease != null) lease.copyIn(matchDir);
+            ProcessBuilder pb = command(lease, gameType, matchDir, mode, mountPoints);
+            pb.redirectErrorStream(true);
+            Path copyBack = lease != null && "compile".equals(mode) ? matchDir : null;
+            return new DockerExecution(lease, pb.start(), copyBack);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            if (lease != null) lease.close();
+            throw e;
+        }
+    }
+
+    private ProcessBuilder command(SandboxContainerPool.Lease lease, String gameType, Path matchDir, String mode, String... mountPoints) {
+        if (lease != null) {
+            return lease.exec("python3", "referee.py", gameType, mode);
+        }
+
+        List<String> command = new ArrayList<>(List.of("docker", "run", "--rm"));
+        for (String mountPoint : mountPoints) {
+            command.add("-v");
+            command.add(matchDir.toString().replace("\\", "/") + ":" + mountPoint);
+        }
+        command.addAll(List.of(SandboxContainerPool.ENGINE_IMAGE, "python3", "referee.py", gameType, mode));
+        return new ProcessBuilder(command);
+    }
+
+    // copyBack: 대여 컨테이너에서 결과를 회수할 디렉토리 (없으면 null)
+    private record DockerExecution(SandboxContainerPool.Lease lease, Process process, Path copyBack) implements Execution {
+
+        @Override
+        public InputStream output() {
+            return process.getInputStream();
+        }
+
+        @Override
+        public int waitFor() throws InterruptedException {
+            int exitCode = process.waitFor();
+            if (copyBack != null) {
+                try {
+                    lease.copyOut(copyBack);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return exitCode;
+        }
+
+        @Override
+        public void destroy() {
+            process.destroyForcibly();
+        }
+
+        @Override
+        public void close() {
+            if (lease != null) lease.close();
+        }
+    }
+}
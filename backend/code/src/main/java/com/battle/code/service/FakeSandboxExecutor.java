@@ -0,0 +1,122 @@
+package com.battle.code.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 테스트용 referee (sandbox.executor=fake)
+ * - Docker 없이 기록된 실제 referee 출력 (fake/land_grab_run.jsonl) 을 그대로 반환
+ * - 첫 줄 전에 delayMs, 이후 줄마다 turnDelayMs 만큼 대기 (실행 시간과 턴 스트리밍 흉내)
+ * - compile 모드는 항상 성공
+ * - 제출 코드는 실행하지 않으므로 결과는 항상 같음 (p2 승리)
+ * - 워밍 풀이 필요 없으므로 sandbox.pool.size=0 과 함께 사용
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sandbox.executor", havingValue = "fake")
+public class FakeSandboxExecutor implements SandboxExecutor {
+
+    private static final String COMPILE_OUTPUT = "{\"status\": \"success\"}";
+
+    private final List<byte[]> runOutput;
+    private final long delayMs;
+    private final long turnDelayMs;
+
+    public FakeSandboxExecutor(@Value("${sandbox.fake.delay-ms:1000}") long delayMs,
+                               @Value("${sandbox.fake.turn-delay-ms:0}") long turnDelayMs) throws IOException {
+        this.delayMs = delayMs;
+        this.turnDelayMs = turnDelayMs;
+        this.runOutput = new ArrayList<>();
+        String canned = new String(new ClassPathResource("fake/land_grab_run.jsonl").getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+        for (String line : canned.split("\n")) {
+            if (!line.isBlank()) runOutput.add((line + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        log.warn("[FakeSandbox] Referee execution is simulated (delay {}ms, turn delay {}ms)", delayMs, turnDelayMs);
+    }
+
+    @Override
+    public Execution start(String gameType, Path matchDir, String mode, String... mountPoints) {
+        List<byte[]> lines = "compile".equals(mode)
+                ? List.of((COMPILE_OUTPUT + "\n").getBytes(StandardCharsets.UTF_8))
+                : runOutput;
+        InputStream output = new DelayedLineStream(lines, delayMs, turnDelayMs);
+        return new Execution() {
+            @Override
+            public InputStream output() {
+                return output;
+            }
+
+            @Override
+            public int waitFor() {
+                return 0;
+            }
+
+            @Override
+            public void destroy() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    // 줄 단위로 대기하며 내보내는 출력 (읽는 스레드에서 대기)
+    private static class DelayedLineStream extends InputStream {
+        private final List<byte[]> lines;
+        private final long firstDelayMs;
+        private final long lineDelayMs;
+        private int lineIndex = -1;
+        private int offset;
+
+        private DelayedLineStream(List<byte[]> lines, long firstDelayMs, long lineDelayMs) {
+            this.lines = lines;
+            this.firstDelayMs = firstDelayMs;
+            this.lineDelayMs = lineDelayMs;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (lineIndex < 0 || offset == lines.get(lineIndex).length) {
+                if (lineIndex + 1 >= lines.size()) return -1;
+                sleep(lineIndex < 0 ? firstDelayMs : lineDelayMs);
+                lineIndex++;
+                offset = 0;
+            }
+            byte[] line = lines.get(lineIndex);
+            int count = Math.min(len, line.length - offset);
+            System.arraycopy(line, offset, buffer, off, count);
+            offset += count;
+            return count;
+        }
+
+        private static void sleep(long ms) throws IOException {
+            if (ms <= 0) return;
+            try {
+                Thread.sleep(ms);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Fake referee interrupted");
+            }
+        }
+    }
+}
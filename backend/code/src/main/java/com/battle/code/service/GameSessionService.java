@@ -1,8 +1,10 @@
 package com.battle.code.service;
 
+import com.battle.code.dto.PendingMatchResult;
+import com.battle.code.repository.MatchRoomRepository;
+import com.battle.code.repository.MatchRoomRepository.MatchRoom;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -14,37 +16,37 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class GameSessionService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final MatchRoomRepository matchRoomRepository;
     private final LandGrabService landGrabService;
     private final SimpMessagingTemplate messagingTemplate;
-    private final MatchService matchService;
+    private final MatchResultWriter matchResultWriter;
+    private final WorkspaceManager workspaceManager;
+    private final MatchTracer matchTracer;
 
     // 유저가 코드를 제출했을 때 처리
     public void handleCodeSubmission(String matchId, Long userId, String code, String language) {
-        String roomKey = "match_room:" + matchId;
-
         // 유효성 검사 및 역할(p1/p2) 확인
-        if (!Boolean.TRUE.equals(redisTemplate.opsForHash().hasKey(roomKey, "p1"))) {
+        MatchRoom room = matchRoomRepository.find(matchId).orElse(null);
+        if (room == null) {
             log.warn("Submission for non-existent or expired match: {}", matchId);
             return;
         }
 
-        String p1IdStr = String.valueOf(redisTemplate.opsForHash().get(roomKey, "p1"));
-        String p2IdStr = String.valueOf(redisTemplate.opsForHash().get(roomKey, "p2"));
-
-        String playerRole; // "p1" or "p2"
-        if (String.valueOf(userId).equals(p1IdStr)) playerRole = "p1";
-        else if (String.valueOf(userId).equals(p2IdStr)) playerRole = "p2";
-        else {
+        String playerRole = room.roleOf(String.valueOf(userId)); // "p1" or "p2"
+        if (playerRole == null) {
             log.error("Unknown user {} tried to submit in match {}", userId, matchId);
             return;
         }
 
-        // Redis에 코드 저장
-        redisTemplate.opsForHash().put(roomKey, playerRole + "_code", code);
-        redisTemplate.opsForHash().put(roomKey, playerRole + "_lang", language);
+        // Redis에 코드 저장 (저장 후 방 상태를 함께 받아옴)
+        room = matchRoomRepository.saveSubmission(matchId, playerRole, code, language).orElse(null);
+        if (room == null) {
+            log.warn("Match {} expired before submission was saved", matchId);
+            return;
+        }
 
         log.info("Code saved for {} in match {}", playerRole, matchId);
+        matchTracer.record(matchId, "SUBMITTED", playerRole + " (" + language + ", " + code.length() + " chars)");
 
         // 상대에게 "제출 완료" 알림 (UI 업데이트용 - role 포함)
         messagingTemplate.convertAndSend("/topic/game/" + matchId, Map.of(
@@ -54,55 +56,57 @@ public class GameSessionService {
         ));
 
         // 양쪽 다 제출했는지 확인 후 게임 시작
-        boolean p1Ready = redisTemplate.opsForHash().hasKey(roomKey, "p1_code");
-        boolean p2Ready = redisTemplate.opsForHash().hasKey(roomKey, "p2_code");
-
-        if (p1Ready && p2Ready) {
+        if (room.bothSubmitted()) {
             log.info("All players ready in match {}. Starting execution!", matchId);
-            runPvPMatch(matchId, roomKey);
+            runPvPMatch(room);
         } else {
             log.info("Waiting for opponent in match {}...", matchId);
         }
     }
 
     // [정상 종료] 양측 코드 실행 및 결과 처리
-    private void runPvPMatch(String matchId, String roomKey) {
+    private void runPvPMatch(MatchRoom room) {
+        String matchId = room.matchId();
         try {
-            // Redis에서 실행에 필요한 데이터 꺼내기
-            String p1Code = (String) redisTemplate.opsForHash().get(roomKey, "p1_code");
-            String p2Code = (String) redisTemplate.opsForHash().get(roomKey, "p2_code");
-            String p1Lang = (String) redisTemplate.opsForHash().get(roomKey, "p1_lang");
-            String p2Lang = (String) redisTemplate.opsForHash().get(roomKey, "p2_lang");
-            String mapDataJson = (String) redisTemplate.opsForHash().get(roomKey, "mapData"); // 저장해둔 맵 데이터
-
-            // DB 저장을 위해 ID도 가져옴
-            String p1Id = (String) redisTemplate.opsForHash().get(roomKey, "p1");
-            String p2Id = (String) redisTemplate.opsForHash().get(roomKey, "p2");
-
             // Docker 엔진 실행 (LandGrabService)
-            Map<String, Object> result = landGrabService.runPvPMatch(matchId, p1Code, p1Lang, p2Code, p2Lang, mapDataJson);
+            // 턴이 진행될 때마다 구독자에게 바로 전송
+            matchTracer.record(matchId, "EXECUTION_START", null);
+            boolean[] firstTurn = {true};
+            Map<String, Object> result = landGrabService.runPvPMatch(matchId,
+                    room.p1Code(), room.p1Lang(), room.p2Code(), room.p2Lang(), room.mapData(),
+                    turn -> {
+                        messagingTemplate.convertAndSend("/topic/game/" + matchId, turn);
+                        if (firstTurn[0]) {
+                            firstTurn[0] = false;
+                            matchTracer.record(matchId, "FIRST_TURN_SENT", null);
+                        }
+                    });
             result.put("type", "RESULT");
+            matchTracer.record(matchId, "EXECUTION_END", "winner=" + result.get("winner") + ", turns=" + result.get("total_turns"));
 
-            // [DB 저장] MatchService 호출 (정상 종료)
+            // [DB 저장] 스풀에 기록 후 바로 반환 (DB 저장은 MatchResultWriter 가 배치로 처리)
             try {
-                matchService.savePvPMatchResult(
+                matchResultWriter.submit(PendingMatchResult.pvp(
                         matchId,
-                        Long.parseLong(p1Id),
-                        Long.parseLong(p2Id),
+                        Long.parseLong(room.p1()),
+                        Long.parseLong(room.p2()),
                         result,
-                        p1Code, p1Lang, p2Code, p2Lang
-                );
-                log.info("✅ Match result saved to DB for match {}", matchId);
+                        room.p1Code(), room.p1Lang(), room.p2Code(), room.p2Lang()
+                ));
+                log.info("✅ Match result queued for match {}", matchId);
             } catch (Exception e) {
-                log.error("❌ Failed to save match result to DB: {}", e.getMessage());
+                log.error("❌ Failed to queue match result: {}", e.getMessage());
                 // 저장 실패해도 결과 전달을 위해 전송 진행
             }
 
-            //  결과 전송 (양쪽 유저에게 전송)
-            messagingTemplate.convertAndSend("/topic/game/" + matchId, result);
+            //  결과 전송 (양쪽 유저에게 전송, 턴 로그는 이미 TURN 메시지로 전송됨)
+            Map<String, Object> summary = new HashMap<>(result);
+            summary.remove("logs");
+            messagingTemplate.convertAndSend("/topic/game/" + matchId, summary);
+            matchTracer.record(matchId, "RESULT_SENT", null);
 
             // 방 정리
-            cleanupMatch(matchId, p1Id, p2Id);
+            cleanupMatch(room);
 
         } catch (Exception e) {
             log.error("🔥 PvP Execution Error: {}", e.getMessage());
@@ -110,11 +114,10 @@ public class GameSessionService {
                     "type", "ERROR",
                     "error", "Execution Failed: " + e.getMessage()
             ));
+            matchTracer.finish(matchId, "EXECUTION_FAILED", e.getMessage());
 
-            String p1Id = (String) redisTemplate.opsForHash().get(roomKey, "p1");
-            String p2Id = (String) redisTemplate.opsForHash().get(roomKey, "p2");
             // 에러 시에도 방 정리
-            cleanupMatch(matchId, p1Id, p2Id);
+            cleanupMatch(room);
         }
     }
 
@@ -122,22 +125,13 @@ public class GameSessionService {
      * [비정상 종료] 탈주(Disconnect) 처리
      */
     public void handleDisconnection(String matchId, String disconnectedUserId) {
-        String roomKey = "match_room:" + matchId;
-
-        if (!Boolean.TRUE.equals(redisTemplate.opsForHash().hasKey(roomKey, "p1"))) {
+        // 방 정보 한 번에 조회 (코드는 제출 전 탈주 시 null)
+        MatchRoom room = matchRoomRepository.find(matchId).orElse(null);
+        if (room == null) {
             return;
         }
 
-        String p1Id = (String) redisTemplate.opsForHash().get(roomKey, "p1");
-        String p2Id = (String) redisTemplate.opsForHash().get(roomKey, "p2");
-
-        // 코드 정보 조회 (제출 전 탈주 시 null)
-        String p1Code = (String) redisTemplate.opsForHash().get(roomKey, "p1_code");
-        String p1Lang = (String) redisTemplate.opsForHash().get(roomKey, "p1_lang");
-        String p2Code = (String) redisTemplate.opsForHash().get(roomKey, "p2_code");
-        String p2Lang = (String) redisTemplate.opsForHash().get(roomKey, "p2_lang");
-
-        String winnerRole = disconnectedUserId.equals(p1Id) ? "p2" : "p1";
+        String winnerRole = disconnectedUserId.equals(room.p1()) ? "p2" : "p1";
 
         Map<String, Object> result = new HashMap<>();
         result.put("type", "RESULT");
@@ -145,33 +139,36 @@ public class GameSessionService {
         result.put("reason", "OPPONENT_DISCONNECTED");
         result.put("logs", null);
         result.put("final_scores", Map.of("p1", 0, "p2", 0)); // 기본 점수
+        matchTracer.record(matchId, "DISCONNECTED", "user=" + disconnectedUserId);
 
         // [DB 저장] 기권패 기록
         try {
-            matchService.savePvPMatchResult(
+            matchResultWriter.submit(PendingMatchResult.pvp(
                     matchId,
-                    Long.parseLong(p1Id),
-                    Long.parseLong(p2Id),
+                    Long.parseLong(room.p1()),
+                    Long.parseLong(room.p2()),
                     result,
-                    p1Code, p1Lang, p2Code, p2Lang
-            );
+                    room.p1Code(), room.p1Lang(), room.p2Code(), room.p2Lang()
+            ));
         } catch (Exception e) {
             log.error("❌ Failed to save disconnect result: {}", e.getMessage());
         }
 
         messagingTemplate.convertAndSend("/topic/game/" + matchId, result);
-        cleanupMatch(matchId, p1Id, p2Id);
+        matchTracer.record(matchId, "RESULT_SENT", null);
+        cleanupMatch(room);
     }
 
     public void registerGameSession(String matchId, String sessionId) {
         // 세션이 끊기면 해당 매치 기권패
-        redisTemplate.opsForValue().set("socket_game:" + sessionId, matchId);
+        matchRoomRepository.bindSocketGame(sessionId, matchId);
+        matchTracer.record(matchId, "SOCKET_JOINED", sessionId);
     }
 
     // 방 정리 헬퍼 메서드
-    private void cleanupMatch(String matchId, String p1Id, String p2Id) {
-        String roomKey = "match_room:" + matchId;
-        redisTemplate.delete(roomKey);
-        log.info("Match room {} cleaned up.", matchId);
+    private void cleanupMatch(MatchRoom room) {
+        matchRoomRepository.delete(room);
+        workspaceManager.finish(room.matchId());
+        log.info("Match room {} cleaned up.", room.matchId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.battle.code.service;
+
+import com.battle.code.dto.MatchJobDto;
+import com.battle.code.dto.PendingMatchResult;
+import com.battle.code.dto.RunRequestDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * AI 대전(연습) 실행 작업 관리
+ * - 요청 스레드는 jobId 만 받고 즉시 반환, 실행은 matchExecutor 에서 처리 (결과 저장은 MatchResultWriter)
+ * - 진행 상태는 /topic/job/{jobId} 로 전송하며 GET 으로도 조회 가능
+ */
+@Slf4j
+@Service
+public class LandGrabJobService {
+
+    private final LandGrabService landGrabService;
+    private final MatchResultWriter matchResultWriter;
+    private final WorkspaceManager workspaceManager;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolTaskExecutor matchExecutor;
+    private final long retentionMs;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public LandGrabJobService(LandGrabService landGrabService,
+                              MatchResultWriter matchResultWriter,
+                              WorkspaceManager workspaceManager,
+                              SimpMessagingTemplate messagingTemplate,
+                              @Qualifier("matchExecutor") ThreadPoolTaskExecutor matchExecutor,
+                              @Value("${match.job.retention-ms:600000}") long retentionMs) {
+        this.landGrabService = landGrabService;
+        this.matchResultWriter = matchResultWriter;
+        this.workspaceManager = workspaceManager;
+        this.messagingTemplate = messagingTemplate;
+        this.matchExecutor = matchExecutor;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * 작업 제출
+     * - 실행 큐가 가득 차면 TaskRejectedException 발생
+     */
+    public MatchJobDto submit(Long userId, RunRequestDto request) {
+        Job job = new Job(UUID.randomUUID().toString(), userId, request.getMatchId());
+        jobs.put(job.jobId, job);
+
+        try {
+            matchExecutor.execute(() -> execute(job, request));
+        } catch (RuntimeException e) {
+            jobs.remove(job.jobId);
+            throw e;
+        }
+
+        log.info("[MATCH_JOB] Queued - jobId={}, matchId={}, userId={}", job.jobId, job.matchId, userId);
+        return job.toDto();
+    }
+
+    /**
+     * 작업 조회
+     * - 본인 작업만 조회 가능 (없거나 타인 작업이면 null)
+     */
+    public MatchJobDto getJob(String jobId, Long userId) {
+        Job job = jobs.get(jobId);
+        if (job == null || (job.userId != null && !job.userId.equals(userId))) return null;
+        return job.toDto();
+    }
+
+    /**
+     * 매치 실행 후 결과 저장
+     * - 동기 /run 과 비동기 작업이 공통으로 사용
+     * - 저장 실패는 결과 반환에 영향을 주지 않음
+     * - 실행이 끝나면 작업 디렉토리를 정리 (실행 실패 시에는 재시도를 위해 유지, TTL 로 정리)
+     */
+    public Map<String, Object> runAndSave(Long userId, RunRequestDto request) throws Exception {
+        return runAndSave(userId, request, turn -> {});
+    }
+
+    private Map<String, Object> runAndSave(Long userId, RunRequestDto request,
+                                           Consumer<Map<String, Object>> turnListener) throws Exception {
+        Map<String, Object> result = landGrabService.runMatch(
+                request.getMatchId(),
+                request.getUserCode(),
+                request.getLanguage(),
+                request.getDifficulty(),
+                turnListener
+        );
+
+        log.debug("[LAND_GRAB_RUN] Result keys={}", result.keySet());
+
+        if (userId != null) {
+            try {
+                log.info("[MATCH_SAVE] Attempt - userId={}, matchId={}",
+                        userId, request.getMatchId());
+
+                matchResultWriter.submit(PendingMatchResult.ai(
+                        request.getMatchId(),
+                        userId,
+                        result,
+                        request.getUserCode(),
+                        request.getLanguage() != null ? request.getLanguage() : "python",
+                        request.getDifficulty()
+                ));
+
+                log.info("[MATCH_SAVE] Queued - userId={}, matchId={}",
+                        userId, request.getMatchId());
+            } catch (Exception e) {
+                log.error("[MATCH_SAVE] Failed - userId={}, matchId={}",
+                        userId, request.getMatchId(), e);
+            }
+        } else {
+            log.warn("[MATCH_SAVE] Skipped - anonymous user");
+        }
+
+        // 결과 처리가 끝난 작업 디렉토리 정리
+        workspaceManager.finish(request.getMatchId());
+        return result;
+    }
+
+    private void execute(Job job, RunRequestDto request) {
+        job.status = "RUNNING";
+        publish(job);
+
+        try {
+            // 턴 진행 상황도 작업 토픽으로 실시간 전송
+            job.result = runAndSave(job.userId, request,
+                    turn -> messagingTemplate.convertAndSend("/topic/job/" + job.jobId, turn));
+            job.status = "DONE";
+        } catch (Exception e) {
+            log.error("[MATCH_JOB] Failed - jobId={}, matchId={}", job.jobId, job.matchId, e);
+            job.error = e.getMessage();
+            job.status = "FAILED";
+        }
+
+        job.finishedAt = LocalDateTime.now();
+        publish(job);
+    }
+
+    private void publish(Job job) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "JOB");
+        message.put("jobId", job.jobId);
+        message.put("matchId", job.matchId);
+        message.put("status", job.status);
+        if (job.result != null) {
+            // 턴 로그는 TURN 메시지로 이미 전송됨 (전체 로그는 GET /jobs/{jobId} 로 조회)
+            Map<String, Object> summary = new HashMap<>(job.result);
+            summary.remove("logs");
+            message.put("result", summary);
+        }
+        if (job.error != null) message.put("error", job.error);
+
+        messagingTemplate.convertAndSend("/topic/job/" + job.jobId, message);
+    }
+
+    // 보관 기간이 지난 완료 작업 정리
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusNanos(retentionMs * 1_000_000);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private static class Job {
+        private final String jobId;
+        private final Long userId;
+        private final String matchId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile String status = "QUEUED";
+        private volatile Map<String, Object> result;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String jobId, Long userId, String matchId) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.matchId = matchId;
+        }
+
+        private MatchJobDto toDto() {
+            return new MatchJobDto(jobId, matchId, status, result, error, submittedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.battle.code.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * LandGrab 맵 생성기 (land_grab.py 의 _generate_map_data / is_reachable 과 동일 규칙)
+ * - 벽: BOARD_SIZE^2 * WALL_RATIO 회 무작위 배치 (양 시작점 제외)
+ * - (0,0) -> (N-1,N-1) 경로가 없으면 다시 생성
+ * - 코인: 벽/시작점이 아닌 칸에 5개
+ * - 셀 인덱스(y * N + x) 기반 BitSet 으로 BFS 수행
+ */
+@Component
+public class LandGrabMapGenerator {
+
+    public static final int BOARD_SIZE = 15;
+    private static final double WALL_RATIO = 0.2;
+    private static final int COIN_COUNT = 5;
+
+    private static final int CELLS = BOARD_SIZE * BOARD_SIZE;
+    private static final int START_P1 = 0;
+    private static final int START_P2 = CELLS - 1;
+
+    public Map<String, Object> generate() {
+        return generate(new SplittableRandom());
+    }
+
+    // 같은 seed 면 같은 맵 (재현/테스트용)
+    public Map<String, Object> generate(long seed) {
+        return generate(new SplittableRandom(seed));
+    }
+
+    private Map<String, Object> generate(SplittableRandom random) {
+        int wallAttempts = (int) (CELLS * WALL_RATIO);
+
+        while (true) {
+            BitSet walls = new BitSet(CELLS);
+            List<List<Integer>> wallList = new ArrayList<>();
+            for (int i = 0; i < wallAttempts; i++) {
+                int cell = random.nextInt(CELLS);
+                if (cell == START_P1 || cell == START_P2 || walls.get(cell)) continue;
+                walls.set(cell);
+                wallList.add(toPoint(cell));
+            }
+
+            if (!isReachable(walls)) continue; // 갇혔으면 다시 생성
+
+            BitSet occupied = (BitSet) walls.clone();
+            occupied.set(START_P1);
+            occupied.set(START_P2);
+
+            List<List<Integer>> coins = new ArrayList<>();
+            while (coins.size() < COIN_COUNT) {
+                int cell = random.nextInt(CELLS);
+                if (occupied.get(cell)) continue;
+                occupied.set(cell);
+                coins.add(toPoint(cell));
+            }
+
+            Map<String, Object> map = new HashMap<>();
+            map.put("walls", wallList);
+            map.put("coins", coins);
+            return map;
+        }
+    }
+
+    /**
+     * (0,0) 에서 (N-1,N-1) 까지 상하좌우 이동으로 도달 가능한지 확인
+     */
+    public boolean isReachable(BitSet walls) {
+        BitSet visited = new BitSet(CELLS);
+        int[] queue = new int[CELLS];
+        int head = 0, tail = 0;
+
+        queue[tail++] = START_P1;
+        visited.set(START_P1);
+
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == START_P2) return true;
+
+            int x = cell % BOARD_SIZE;
+            int y = cell / BOARD_SIZE;
+
+            if (x + 1 < BOARD_SIZE) tail = visit(cell + 1, walls, visited, queue, tail);
+            if (x - 1 >= 0) tail = visit(cell - 1, walls, visited, queue, tail);
+            if (y + 1 < BOARD_SIZE) tail = visit(cell + BOARD_SIZE, walls, visited, queue, tail);
+            if (y - 1 >= 0) tail = visit(cell - BOARD_SIZE, walls, visited, queue, tail);
+        }
+        return false;
+    }
+
+    private int visit(int next, BitSet walls, BitSet visited, int[] queue, int tail) {
+        if (walls.get(next) || visited.get(next)) return tail;
+        visited.set(next);
+        queue[tail] = next;
+        return tail + 1;
+    }
+
+    // 셀 인덱스 -> [x, y]
+    private List<Integer> toPoint(int cell) {
+        return List.of(cell % BOARD_SIZE, cell / BOARD_SIZE);
+    }
+}
@@ -1,16 +1,27 @@
 package com.battle.code.service;
 
+import com.battle.code.dto.MatchEntrant;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -20,26 +31,30 @@ public class LandGrabService {
     private final CodeTemplateManager templateManager;
     private final String GAME_TYPE = "land_grab";
     private final ObjectMapper objectMapper;
-
-    public Map<String, Object> startMatch() throws IOException, InterruptedException {
+    private final SandboxExecutor sandboxExecutor;
+    private final CompileArtifactCache artifactCache;
+    private final LandGrabMapGenerator mapGenerator;
+    private final WorkspaceManager workspaceManager;
+    private final MatchMetrics metrics;
+
+    // 캐시 미스인 양쪽 코드를 동시에 컴파일하기 위한 스레드 (매치 실행 스레드와 분리)
+    private final AtomicInteger compileThreads = new AtomicInteger();
+    private final ExecutorService compileExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "isolated-compile-" + compileThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 컴파일이 필요한 플레이어 코드 (캐시 미스, 실패 기록 없음)
+    private record PendingCompile(Path playerDir, String player, String lang, String finalCode, String artifactKey) {}
+
+    // 매치 생성: JVM 내에서 맵 생성 후 map.json 저장 (AI 대전 run 에서 사용)
+    public Map<String, Object> startMatch() throws IOException {
         String matchId = UUID.randomUUID().toString();
-        Path matchDir = Paths.get(System.getProperty("user.dir"), "temp", matchId).toAbsolutePath();
-        Files.createDirectories(matchDir);
-
-        ProcessBuilder pb = new ProcessBuilder(
-                "docker", "run", "--rm",
-                "-v", matchDir.toString().replace("\\", "/") + ":/app/data",
-                "code-battle-engine",
-                "python3", "referee.py", GAME_TYPE, "init"
-        );
-
-        String output = runProcessAndGetOutput(pb);
+        Path matchDir = workspaceManager.create(matchId);
 
-        if (output.isBlank()) {
-            throw new RuntimeException("Docker 'init' output is empty. Check log for details.");
-        }
-
-        Map<String, Object> mapData = objectMapper.readValue(output, Map.class);
+        Map<String, Object> mapData = generateMap();
+        objectMapper.writeValue(matchDir.resolve("map.json").toFile(), mapData);
 
         Map<String, Object> response = new HashMap<>(mapData);
         response.put("matchId", matchId);
@@ -47,98 +62,222 @@ public class LandGrabService {
         return response;
     }
 
-    public Map compileCode(String matchId, String userCode, String language) throws IOException, InterruptedException {
-        Path matchDir = Paths.get(System.getProperty("user.dir"), "temp", matchId).toAbsolutePath();
-        if (!Files.exists(matchDir)) throw new RuntimeException("Match ID not found.");
-
-        String runner = templateManager.loadRunnerTemplate(language);
-        String finalCode = runner.replace("%USER_CODE%", userCode);
-        String p1File = language.equalsIgnoreCase("java") ? "Main.java" : "p1" + getExtension(language);
-        Files.writeString(matchDir.resolve(p1File), finalCode);
-
-        ProcessBuilder pb = new ProcessBuilder(
-                "docker", "run", "--rm",
-                "-v", matchDir.toString().replace("\\", "/") + ":/app/players",
-                "code-battle-engine",
-                "python3", "referee.py", GAME_TYPE, "compile"
-        );
+    // 맵 데이터만 생성 (PvP 매칭용, 작업 디렉토리 없음)
+    public Map<String, Object> generateMap() {
+        Timer.Sample sample = metrics.start();
+        Map<String, Object> map = mapGenerator.generate();
+        metrics.stop(sample, MatchMetrics.MAP_GENERATE, MatchMetrics.NONE, MatchMetrics.NONE);
+        return map;
+    }
 
-        String output = runProcessAndGetOutput(pb);
-        return objectMapper.readValue(output, Map.class);
+    // 컴파일 확인 (매치 디렉토리는 존재 확인용으로만 잡고, 컴파일은 별도 디렉토리에서 수행)
+    public Map compileCode(String matchId, String userCode, String language) throws IOException, InterruptedException {
+        workspaceManager.acquire(matchId);
+        try {
+            String lang = (language != null) ? language.toLowerCase() : "python";
+            String finalCode = templateManager.loadRunnerTemplate(lang).replace("%USER_CODE%", userCode);
+            String artifactKey = artifactCache.keyOf(lang, finalCode);
+            if (artifactCache.contains(artifactKey)) return Map.of("status", "success");
+            String failure = artifactCache.failureOf(artifactKey);
+            if (failure != null) return Map.of("status", "error", "error", failure);
+            return compileIsolated(lang, finalCode, artifactKey, "AI");
+        } finally {
+            workspaceManager.release(matchId);
+        }
     }
 
     public Map<String, Object> runMatch(String matchId, String userCode, String language, String difficulty) throws IOException, InterruptedException {
-        Path matchDir = Paths.get(System.getProperty("user.dir"), "temp", matchId).toAbsolutePath();
-        if (!Files.exists(matchDir)) throw new RuntimeException("Match ID not found.");
+        return runMatch(matchId, userCode, language, difficulty, turn -> {});
+    }
 
-        String runner = templateManager.loadRunnerTemplate(language);
-        String finalCode = runner.replace("%USER_CODE%", userCode);
-        String p1File = language.equalsIgnoreCase("java") ? "Main.java" : "p1" + getExtension(language);
-        Files.writeString(matchDir.resolve(p1File), finalCode);
+    /**
+     * AI 매치 실행
+     * - turnListener: referee 가 턴을 출력할 때마다 호출 (type=TURN 포함)
+     */
+    public Map<String, Object> runMatch(String matchId, String userCode, String language, String difficulty,
+                                        Consumer<Map<String, Object>> turnListener) throws IOException, InterruptedException {
+        Path matchDir = workspaceManager.acquire(matchId);
+        try {
+            compileMissing("AI", savePlayerCode(matchDir, "p1", language, userCode, "AI"));
+
+            String targetDifficulty = (difficulty != null) ? difficulty.toLowerCase() : "easy";
+            saveAiCode(matchDir, "p2", targetDifficulty);
+
+            return runRefereeStreaming(matchDir, "run", turnListener, "AI", language,
+                    "/app/data", "/app/players");
+        } finally {
+            workspaceManager.release(matchId);
+        }
+    }
 
-        String targetDifficulty = (difficulty != null) ? difficulty.toLowerCase() : "easy";
-        String aiCode = templateManager.loadAiCode(GAME_TYPE, targetDifficulty);
-        Files.writeString(matchDir.resolve("p2.py"), aiCode);
+    // PvP 매치 실행 (턴 진행 상황은 turnListener 로 실시간 전달)
+    public Map<String, Object> runPvPMatch(String matchId, String p1Code, String p1Lang, String p2Code, String p2Lang, String mapDataJson,
+                                           Consumer<Map<String, Object>> turnListener) throws IOException, InterruptedException {
+        workspaceManager.create(matchId);
+        Path matchDir = workspaceManager.acquire(matchId);
+        try {
+            // 맵 파일 저장
+            JsonNode rootNode = objectMapper.readTree(mapDataJson);
+            JsonNode mapToSave = rootNode.has("map") ? rootNode.get("map") : rootNode;
+
+            objectMapper.writeValue(matchDir.resolve("map.json").toFile(), mapToSave);
+
+            // 플레이어 코드 저장 (캐시된 컴파일 결과가 있으면 함께 복원)
+            compileMissing("PVP",
+                    savePlayerCode(matchDir, "p1", p1Lang, p1Code, "PVP"),
+                    savePlayerCode(matchDir, "p2", p2Lang, p2Code, "PVP"));
+
+            // Docker 실행
+            Map<String, Object> result = runRefereeStreaming(matchDir, "run", turnListener, "PVP",
+                    MatchMetrics.languageOf(p1Lang, p2Lang), "/app/data", "/app/players");
+            log.info("Docker Result - match={}, winner={}, turns={}", matchId, result.get("winner"), result.get("total_turns"));
+            return result;
+        } finally {
+            workspaceManager.release(matchId);
+        }
+    }
 
-        ProcessBuilder pb = new ProcessBuilder(
-                "docker", "run", "--rm",
-                "-v", matchDir.toString().replace("\\", "/") + ":/app/data",
-                "-v", matchDir.toString().replace("\\", "/") + ":/app/players",
-                "code-battle-engine",
-                "python3", "referee.py", GAME_TYPE, "run"
-        );
+    /**
+     * 참가자 간 단판 실행 (토너먼트용)
+     * - 맵은 JVM 에서 생성, 턴 스트리밍 없이 결과만 반환
+     * - 사용자 코드는 컴파일 산출물 캐시를 통해 같은 참가자의 여러 경기에서 재사용됨
+     * - 작업 디렉토리는 실행 후 바로 정리
+     */
+    public Map<String, Object> runHeadToHead(String matchId, MatchEntrant p1, MatchEntrant p2) throws IOException, InterruptedException {
+        workspaceManager.create(matchId);
+        Path matchDir = workspaceManager.acquire(matchId);
+        try {
+            objectMapper.writeValue(matchDir.resolve("map.json").toFile(), generateMap());
+
+            compileMissing("TOURNAMENT", saveEntrantCode(matchDir, "p1", p1), saveEntrantCode(matchDir, "p2", p2));
+
+            return runRefereeStreaming(matchDir, "run", turn -> {}, "TOURNAMENT",
+                    MatchMetrics.languageOf(p1.getLanguage(), p2.getLanguage()), "/app/data", "/app/players");
+        } finally {
+            workspaceManager.finish(matchId);
+            workspaceManager.release(matchId);
+        }
+    }
 
-        String jsonOutput = runProcessAndGetOutput(pb);
-        return objectMapper.readValue(jsonOutput, Map.class);
+    private PendingCompile saveEntrantCode(Path matchDir, String player, MatchEntrant entrant) throws IOException {
+        if (!entrant.isAi()) {
+            return savePlayerCode(matchDir, player, entrant.getLanguage(), entrant.getCode(), "TOURNAMENT");
+        }
+        saveAiCode(matchDir, player, entrant.getAiDifficulty());
+        return null;
     }
 
-    // PvP 매치 실행
-    public Map<String, Object> runPvPMatch(String matchId, String p1Code, String p1Lang, String p2Code, String p2Lang, String mapDataJson) throws IOException, InterruptedException {
-        Path matchDir = Paths.get(System.getProperty("user.dir"), "temp", matchId).toAbsolutePath();
-        if (!Files.exists(matchDir)) Files.createDirectories(matchDir);
+    // AI 코드는 독립 실행형이므로 템플릿 없이 그대로 저장
+    private void saveAiCode(Path matchDir, String player, String difficulty) throws IOException {
+        Path playerDir = matchDir.resolve(player);
+        Files.createDirectories(playerDir);
+        Files.writeString(playerDir.resolve(player + ".py"), templateManager.loadAiCode(GAME_TYPE, difficulty));
+    }
 
-        // 맵 파일 저장
-        JsonNode rootNode = objectMapper.readTree(mapDataJson);
-        JsonNode mapToSave = rootNode.has("map") ? rootNode.get("map") : rootNode;
+    /**
+     * 플레이어 코드 저장
+     * - 컴파일 언어는 캐시된 산출물을 복원
+     * - 반환값: 캐시에 없어 먼저 컴파일해야 하는 코드 (compileMissing 으로 전달), 없으면 null
+     *   컴파일 실패가 기록된 코드는 다시 컴파일하지 않고 소스만 둠 -> run 에서 컴파일 에러가 결과의 {player}_error 로 전달
+     * - mode: 지표 태그 (AI, PVP, TOURNAMENT)
+     */
+    private PendingCompile savePlayerCode(Path matchDir, String player, String lang, String code, String mode) throws IOException {
+        lang = (lang != null) ? lang.toLowerCase() : "python";
+        Timer.Sample sample = metrics.start();
 
-        objectMapper.writeValue(matchDir.resolve("map.json").toFile(), mapToSave);
+        Path playerDir = matchDir.resolve(player);
+        if (!Files.exists(playerDir)) Files.createDirectories(playerDir);
 
-        // 플레이어 코드 저장
-        savePlayerCode(matchDir, "p1", p1Lang, p1Code);
-        savePlayerCode(matchDir, "p2", p2Lang, p2Code);
+        String template = templateManager.loadRunnerTemplate(lang);
+        String finalCode = template.replace("%USER_CODE%", code);
 
-        // Docker 실행
-        ProcessBuilder pb = new ProcessBuilder(
-                "docker", "run", "--rm",
-                "-v", matchDir.toString().replace("\\", "/") + ":/app/data",
-                "-v", matchDir.toString().replace("\\", "/") + ":/app/players",
-                "code-battle-engine",
-                "python3", "referee.py", GAME_TYPE, "run"
-        );
+        Files.writeString(playerDir.resolve(sourceFileName(player, lang)), finalCode);
 
-        String jsonOutput = runProcessAndGetOutput(pb);
-        log.info("Docker Result (Raw): {}", jsonOutput);
+        // 동일 코드의 컴파일 결과가 있으면 복원 -> referee 가 컴파일 생략
+        String artifactKey = artifactCache.keyOf(lang, finalCode);
+        boolean restored = artifactCache.restore(artifactKey, playerDir, player);
+        metrics.stop(sample, MatchMetrics.WORKSPACE_PREPARE, mode, lang);
 
-        return objectMapper.readValue(jsonOutput, Map.class);
+        if (artifactKey == null || restored || artifactCache.failureOf(artifactKey) != null) return null;
+        return new PendingCompile(playerDir, player, lang, finalCode, artifactKey);
     }
 
-    private void savePlayerCode(Path matchDir, String player, String lang, String code) throws IOException {
-        lang = (lang != null) ? lang.toLowerCase() : "python";
+    /**
+     * 캐시 미스인 코드를 별도 디렉토리에서 컴파일 후 매치 디렉토리에 복원
+     * - 같은 코드는 한 번만, 서로 다른 코드는 동시에 컴파일 (PvP 양쪽이 모두 미스여도 컨테이너 한 번 분량만 대기)
+     * - 컴파일 실행 자체가 실패하면 소스만 두고 진행 (run 에서 컴파일)
+     */
+    private void compileMissing(String mode, PendingCompile... pending) throws InterruptedException {
+        Map<String, PendingCompile> byKey = new LinkedHashMap<>();
+        for (PendingCompile p : pending) {
+            if (p != null) byKey.putIfAbsent(p.artifactKey(), p);
+        }
+        if (byKey.isEmpty()) return;
+
+        List<PendingCompile> unique = new ArrayList<>(byKey.values());
+        List<CompletableFuture<Void>> others = new ArrayList<>();
+        for (PendingCompile p : unique.subList(1, unique.size())) {
+            others.add(CompletableFuture.runAsync(() -> {
+                try {
+                    compileQuietly(p, mode);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, compileExecutor));
+        }
+        compileQuietly(unique.get(0), mode);
+        CompletableFuture.allOf(others.toArray(CompletableFuture[]::new)).join();
 
-        Path playerDir = matchDir.resolve(player);
-        if (!Files.exists(playerDir)) Files.createDirectories(playerDir);
+        for (PendingCompile p : pending) {
+            if (p != null && artifactCache.contains(p.artifactKey())) {
+                artifactCache.restore(p.artifactKey(), p.playerDir(), p.player());
+            }
+        }
+    }
 
-        String template = templateManager.loadRunnerTemplate(lang);
-        String finalCode = template.replace("%USER_CODE%", code);
+    private void compileQuietly(PendingCompile p, String mode) throws InterruptedException {
+        try {
+            compileIsolated(p.lang(), p.finalCode(), p.artifactKey(), mode);
+        } catch (IOException | RuntimeException e) {
+            log.warn("[Compile] Isolated compile failed for {} ({}): {}", p.player(), p.lang(), e.getMessage());
+        }
+    }
 
-        String fileName;
-        if (lang.equals("java")) {
-            fileName = "Main.java";
-        } else {
-            fileName = player + getExtension(lang);
+    /**
+     * 컴파일 전용 실행
+     * - 플레이어 코드가 한 번도 실행되지 않은 새 작업 디렉토리에서 compile 모드만 수행 (referee 는 p1 만 컴파일)
+     * - 캐시는 여기서 나온 산출물만 저장: run 이후의 매치 디렉토리는 플레이어 프로그램이 덮어쓸 수 있으므로 회수하지 않음
+     * - 컴파일 에러(referee 의 "[... Compilation Error]")는 key 별로 기록 -> 같은 코드는 다시 컴파일하지 않음
+     */
+    private Map compileIsolated(String lang, String finalCode, String artifactKey, String mode) throws IOException, InterruptedException {
+        String compileId = "compile-" + UUID.randomUUID();
+        Path compileDir = workspaceManager.create(compileId);
+        workspaceManager.acquire(compileId);
+        try {
+            Path playerDir = compileDir.resolve("p1");
+            Files.createDirectories(playerDir);
+            Files.writeString(playerDir.resolve(sourceFileName("p1", lang)), finalCode);
+
+            String output = runReferee(compileDir, "compile", mode, lang, "/app/players");
+            long parseStart = System.nanoTime();
+            Map result = objectMapper.readValue(output, Map.class);
+            metrics.record(MatchMetrics.RESULT_PARSE, mode, lang, System.nanoTime() - parseStart);
+
+            if ("success".equals(result.get("status"))) {
+                artifactCache.store(artifactKey, playerDir, "p1", lang);
+            } else if (String.valueOf(result.get("error")).contains("Compilation Error]")) {
+                // 컴파일러가 거부한 코드만 기록 (시간 초과 등 일시적인 실패는 다음에 다시 시도)
+                artifactCache.storeFailure(artifactKey, (String) result.get("error"));
+            }
+            return result;
+        } finally {
+            workspaceManager.finish(compileId);
+            workspaceManager.release(compileId);
         }
+    }
 
-        Files.writeString(playerDir.resolve(fileName), finalCode);
+    private String sourceFileName(String player, String lang) {
+        return lang.equals("java") ? "Main.java" : player + getExtension(lang);
     }
 
     private String getExtension(String language) {
@@ -153,15 +292,99 @@ public class LandGrabService {
         };
     }
 
-    private String runProcessAndGetOutput(ProcessBuilder pb) throws IOException, InterruptedException {
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-        int exitCode = process.waitFor();
+    /**
+     * referee.py 실행 (실행 방식은 SandboxExecutor 구현에 따름)
+     */
+    private String runReferee(Path matchDir, String mode, String metricMode, String language,
+                              String... mountPoints) throws IOException, InterruptedException {
+        Timer.Sample sample = metrics.start();
+        try (SandboxExecutor.Execution execution = sandboxExecutor.start(GAME_TYPE, matchDir, mode, mountPoints)) {
+            metrics.stop(sample, MatchMetrics.SANDBOX_START, metricMode, language);
+            Timer.Sample run = metrics.start();
+            String output = new String(execution.output().readAllBytes(), StandardCharsets.UTF_8);
+            int exitCode = execution.waitFor();
+            metrics.stop(run, refereePhase(mode), metricMode, language);
+
+            if (exitCode != 0) {
+                log.error("Docker execution failed (Exit Code: {}). Output:\n{}", exitCode, output);
+            }
+            return output.trim();
+        }
+    }
 
-        if (exitCode != 0) {
-            log.error("Docker execution failed (Exit Code: {}). Output:\n{}", exitCode, output);
+    /**
+     * referee.py run 모드 실행 (줄 단위 스트리밍)
+     * - {"type":"TURN", ...} 줄은 읽는 즉시 turnListener 로 전달하고 리플레이 저장용 logs 에 누적
+     * - {"type":"RESULT", ...} (또는 초기화 실패 시 type 없는 결과) 줄이 최종 결과
+     * - 지표: 컨테이너 대여~프로세스 시작(sandbox_start), 시작~종료(referee_run), 줄 단위 JSON 파싱 합계(result_parse)
+     */
+    private Map<String, Object> runRefereeStreaming(Path matchDir, String mode, Consumer<Map<String, Object>> turnListener,
+                                                    String metricMode, String language,
+                                                    String... mountPoints) throws IOException, InterruptedException {
+        Timer.Sample sample = metrics.start();
+        try (SandboxExecutor.Execution execution = sandboxExecutor.start(GAME_TYPE, matchDir, mode, mountPoints)) {
+            metrics.stop(sample, MatchMetrics.SANDBOX_START, metricMode, language);
+            Timer.Sample run = metrics.start();
+            long parseNanos = 0;
+
+            List<Map<String, Object>> logs = new ArrayList<>();
+            Map<String, Object> result = null;
+            StringBuilder diagnostics = new StringBuilder(); // JSON 이 아닌 출력 (Docker 에러 등)
+
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(execution.output(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.startsWith("{")) {
+                        if (!line.isEmpty()) diagnostics.append(line).append('\n');
+                        continue;
+                    }
+
+                    long parseStart = System.nanoTime();
+                    Map<String, Object> message = objectMapper.readValue(line, Map.class);
+                    parseNanos += System.nanoTime() - parseStart;
+                    if ("TURN".equals(message.get("type"))) {
+                        try {
+                            turnListener.accept(message);
+                        } catch (Exception e) {
+                            log.warn("Turn listener failed for {}: {}", matchDir.getFileName(), e.getMessage());
+                        }
+                        Map<String, Object> turnLog = new LinkedHashMap<>(message);
+                        turnLog.remove("type");
+                        logs.add(turnLog);
+                    } else {
+                        result = message;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                execution.destroy();
+                throw e;
+            }
+
+            int exitCode = execution.waitFor();
+            metrics.stop(run, refereePhase(mode), metricMode, language);
+            metrics.record(MatchMetrics.RESULT_PARSE, metricMode, language, parseNanos);
+            if (exitCode != 0) {
+                log.error("Docker execution failed (Exit Code: {}). Output:\n{}", exitCode, diagnostics);
+            }
+            if (result == null) {
+                throw new RuntimeException("Referee produced no result. " + diagnostics.toString().trim());
+            }
+
+            result.remove("type");
+            if (!result.containsKey("logs")) result.put("logs", logs);
+            return result;
         }
-        return output.trim();
     }
-}
\ No newline at end of file
+
+    // referee 모드별 지표 단계 (compile 모드는 compile, 나머지는 referee_run)
+    @PreDestroy
+    public void shutdown() {
+        compileExecutor.shutdownNow();
+    }
+
+    private String refereePhase(String mode) {
+        return "compile".equals(mode) ? MatchMetrics.COMPILE : MatchMetrics.REFEREE_RUN;
+    }
+}
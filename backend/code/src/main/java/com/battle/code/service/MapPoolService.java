@@ -0,0 +1,186 @@
+package com.battle.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사전 생성 맵 풀 (LandGrab)
+ * - Key: map_pool:{gameType} (Redis List, 노드 간 공유)
+ * - 매칭 시에는 꺼내기만 하고, 부족분은 전용 스레드에서 비동기로 보충
+ * - 풀이 비어 있으면 기존처럼 즉시 생성 (fallback)
+ */
+@Slf4j
+@Service
+public class MapPoolService {
+
+    private static final String GAME_TYPE = "land_grab";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final LandGrabService landGrabService;
+    private final ObjectMapper objectMapper;
+    private final int targetSize;
+    private final int lowWatermark;
+
+    // 맵 생성은 매칭 스케줄러와 분리된 단일 스레드에서 수행
+    private final ExecutorService producer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "map-pool-producer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean refilling = new AtomicBoolean(false);
+
+    // 메트릭
+    private final AtomicLong takeCount = new AtomicLong();
+    private final AtomicLong emptyCount = new AtomicLong();
+    private final AtomicLong lowWatermarkCount = new AtomicLong();
+    private final AtomicLong producedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public MapPoolService(RedisTemplate<String, Object> redisTemplate,
+                          LandGrabService landGrabService,
+                          ObjectMapper objectMapper,
+                          @Value("${map.pool.size:20}") int targetSize,
+                          @Value("${map.pool.low-watermark:5}") int lowWatermark) {
+        this.redisTemplate = redisTemplate;
+        this.landGrabService = landGrabService;
+        this.objectMapper = objectMapper;
+        this.targetSize = targetSize;
+        this.lowWatermark = lowWatermark;
+    }
+
+    private String getPoolKey(String gameType) {
+        return "map_pool:" + gameType;
+    }
+
+    /**
+     * 맵 꺼내기
+     * - 풀에서 꺼낸 뒤 남은 수가 low watermark 이하면 보충 요청
+     * - 풀이 비어 있으면 즉시 생성 (실패 시 null)
+     */
+    public Map<String, Object> takeLandGrabMap() {
+        takeCount.incrementAndGet();
+
+        String key = getPoolKey(GAME_TYPE);
+        Object json = redisTemplate.opsForList().rightPop(key);
+
+        Long remaining = redisTemplate.opsForList().size(key);
+        if (remaining == null || remaining <= lowWatermark) {
+            lowWatermarkCount.incrementAndGet();
+            requestRefill();
+        }
+
+        if (json != null) {
+            try {
+                return objectMapper.readValue((String) json, Map.class);
+            } catch (Exception e) {
+                log.warn("[MapPool] Broken map entry discarded: {}", e.getMessage());
+            }
+        }
+
+        emptyCount.incrementAndGet();
+        log.warn("[MapPool] Pool empty. Generating map inline.");
+        return generateValidLandGrabMap();
+    }
+
+    // 사용하지 않은 맵 반납 (매칭이 성사되지 않은 경우)
+    public void returnLandGrabMap(Map<String, Object> map) {
+        try {
+            redisTemplate.opsForList().rightPush(getPoolKey(GAME_TYPE), objectMapper.writeValueAsString(map));
+        } catch (Exception e) {
+            log.warn("[MapPool] Failed to return map: {}", e.getMessage());
+        }
+    }
+
+    // 주기적 보충 (스케줄러 스레드는 요청만 하고 바로 반환)
+    @Scheduled(fixedDelayString = "${map.pool.check-interval-ms:5000}")
+    public void checkPool() {
+        Long size = redisTemplate.opsForList().size(getPoolKey(GAME_TYPE));
+        if (size == null || size < targetSize) {
+            requestRefill();
+        }
+    }
+
+    private void requestRefill() {
+        if (!refilling.compareAndSet(false, true)) return; // 이미 보충 중
+        producer.execute(() -> {
+            try {
+                refill();
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    private void refill() {
+        String key = getPoolKey(GAME_TYPE);
+        Long size = redisTemplate.opsForList().size(key);
+        long current = size != null ? size : 0;
+
+        while (current < targetSize) {
+            Map<String, Object> map = generateValidLandGrabMap();
+            if (map == null) return; // 엔진 이상 시 다음 주기에 재시도
+
+            try {
+                redisTemplate.opsForList().leftPush(key, objectMapper.writeValueAsString(map));
+                producedCount.incrementAndGet();
+            } catch (Exception e) {
+                log.warn("[MapPool] Failed to push map: {}", e.getMessage());
+                return;
+            }
+            Long updated = redisTemplate.opsForList().size(key);
+            current = updated != null ? updated : current + 1;
+        }
+        log.debug("[MapPool] Refilled {} to {}", key, current);
+    }
+
+    // 벽과 코인이 포함된 유효한 맵이 나올 때까지 최대 3회 시도
+    private Map<String, Object> generateValidLandGrabMap() {
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            try {
+                Map<String, Object> map = landGrabService.generateMap();
+                if (map != null && map.containsKey("walls") && map.containsKey("coins")) {
+                    List<?> walls = (List<?>) map.get("walls");
+                    if (!walls.isEmpty()) return map;
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ Map generation failed (attempt {}): {}", i + 1, e.getMessage());
+            }
+        }
+        failedCount.incrementAndGet();
+        return null;
+    }
+
+    public Map<String, Object> getStats() {
+        Long size = redisTemplate.opsForList().size(getPoolKey(GAME_TYPE));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size != null ? size : 0);
+        stats.put("targetSize", targetSize);
+        stats.put("lowWatermark", lowWatermark);
+        stats.put("refilling", refilling.get());
+        stats.put("takes", takeCount.get());
+        stats.put("emptyTakes", emptyCount.get());
+        stats.put("lowWatermarkHits", lowWatermarkCount.get());
+        stats.put("produced", producedCount.get());
+        stats.put("failed", failedCount.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        producer.shutdownNow();
+    }
+}
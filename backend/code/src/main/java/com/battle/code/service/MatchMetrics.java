@@ -0,0 +1,88 @@
+package com.battle.code.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매치 파이프라인 단계별 지표 (Micrometer, /actuator/prometheus 로 노출)
+ * - match.phase 타이머: phase, game_type, mode, language 태그 -> 단계별 p50/p99 는 histogram_quantile 로 계산
+ *   queue_wait, map_generate, workspace_prepare, sandbox_start, compile, referee_run, result_parse, db_save
+ * - match.db.batch.size: 결과 저장 배치 크기
+ * - language 는 지원 언어만 그대로 쓰고 나머지는 other (태그 종류 제한)
+ */
+@Component
+public class MatchMetrics {
+
+    public static final String QUEUE_WAIT = "queue_wait";
+    public static final String MAP_GENERATE = "map_generate";
+    public static final String WORKSPACE_PREPARE = "workspace_prepare";
+    public static final String SANDBOX_START = "sandbox_start";
+    public static final String COMPILE = "compile";
+    public static final String REFEREE_RUN = "referee_run";
+    public static final String RESULT_PARSE = "result_parse";
+    public static final String DB_SAVE = "db_save";
+
+    public static final String NONE = "none";
+    public static final String MIXED = "mixed";
+
+    private static final String GAME_TYPE = "land_grab";
+    private static final Set<String> LANGUAGES = Set.of("python", "java", "c", "cpp", "javascript");
+
+    private final MeterRegistry registry;
+    private final DistributionSummary batchSize;
+
+    public MatchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.batchSize = DistributionSummary.builder("match.db.batch.size")
+                .description("Match results stored per transaction")
+                .register(registry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String phase, String mode, String language) {
+        sample.stop(timer(phase, mode, language));
+    }
+
+    public void record(String phase, String mode, String language, long nanos) {
+        timer(phase, mode, language).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatch(int size) {
+        batchSize.record(size);
+    }
+
+    // 두 플레이어 언어 태그 (같으면 그 언어, 다르면 mixed)
+    public static String languageOf(String p1Lang, String p2Lang) {
+        String p1 = normalize(p1Lang);
+        return p1.equals(normalize(p2Lang)) ? p1 : MIXED;
+    }
+
+    private Timer timer(String phase, String mode, String language) {
+        return Timer.builder("match.phase")
+                .description("Match pipeline phase duration")
+                .tag("phase", phase)
+                .tag("game_type", GAME_TYPE)
+                .tag("mode", mode != null ? mode : NONE)
+                .tag("language", MIXED.equals(language) ? MIXED : normalize(language))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(registry);
+    }
+
+    private static String normalize(String language) {
+        if (language == null) return NONE;
+        String lower = language.toLowerCase();
+        if (lower.equals("node") || lower.equals("nodejs")) return "javascript";
+        return LANGUAGES.contains(lower) || lower.equals(NONE) ? lower : "other";
+    }
+}
@@ -0,0 +1,289 @@
+package com.battle.code.service;
+
+import com.battle.code.dto.PendingMatchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 매치 결과 write-behind 저장
+ * - submit: 결과를 스풀 디렉토리에 파일로 기록(fsync)하고 바로 반환 -> 호출 측은 DB 커밋을 기다리지 않고 결과 전송
+ * - 백그라운드 스레드가 batchSize 개씩 모아 MatchService.saveResults 한 트랜잭션으로 저장 (배치 INSERT), 성공하면 파일 삭제
+ * - 배치 저장 실패 시 한 건씩 다시 저장
+ *   일부는 저장되고 일부만 실패하면 그 결과 자체의 문제로 보고 시도 횟수 증가, maxAttempts 이후 failed/ 로 이동
+ *   전부 실패하면 DB 장애로 보고 시도 횟수를 늘리지 않고 큐에 유지, 저장 주기를 지수적으로 늘림 (최대 max-backoff-ms)
+ * - 시작 시 남아 있는 스풀 파일을 다시 큐에 넣음 (이미 저장된 matchUuid 는 saveResults 에서 건너뜀)
+ */
+@Slf4j
+@Component
+public class MatchResultWriter {
+
+    private static final String FAILED_DIR = "failed";
+
+    private final MatchService matchService;
+    private final MatchTracer matchTracer;
+    private final MatchMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final Path spoolDir;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long maxBackoffMs;
+
+    private final BlockingQueue<Spooled> queue = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "result-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong saved = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMs;
+    private volatile long backoffMs;   // DB 장애 중 다음 저장까지 대기 시간 (0 이면 정상)
+    private volatile long retryAt;     // 이 시각 이전에는 저장 시도하지 않음
+
+    private record Spooled(Path file, PendingMatchResult result) {}
+
+    public MatchResultWriter(MatchService matchService,
+                             MatchTracer matchTracer,
+                             MatchMetrics metrics,
+                             ObjectMapper objectMapper,
+                             @Value("${match.result-writer.spool-dir:data/result-spool}") String spoolDir,
+                             @Value("${match.result-writer.batch-size:100}") int batchSize,
+                             @Value("${match.result-writer.flush-interval-ms:200}") long flushIntervalMs,
+                             @Value("${match.result-writer.max-attempts:5}") int maxAttempts,
+                             @Value("${match.result-writer.max-backoff-ms:60000}") long maxBackoffMs) throws IOException {
+        this.matchService = matchService;
+        this.matchTracer = matchTracer;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.spoolDir = Paths.get(System.getProperty("user.dir")).resolve(spoolDir).toAbsolutePath();
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoffMs = maxBackoffMs;
+        Files.createDirectories(this.spoolDir.resolve(FAILED_DIR));
+    }
+
+    // ID 블록 정렬 -> 남은 스풀 복구 -> 주기적 저장 시작
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        matchService.alignIdSequences();
+        recover();
+        writer.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("[ResultWriter] Started (spool {}, batch {}, pending {})", spoolDir, batchSize, queue.size());
+    }
+
+    /**
+     * 결과 저장 요청 (디스크 기록 후 반환)
+     * - 시스템 에러 결과는 저장하지 않음
+     * - 스풀 기록 실패 시 IOException (호출 측에서 로그)
+     */
+    public void submit(PendingMatchResult result) throws IOException {
+        String systemError = (String) result.getResult().get("error");
+        if (systemError != null && !systemError.isEmpty()) {
+            log.warn("[ResultWriter] System error detected for match {}. Not saving.", result.getMatchUuid());
+            matchTracer.finish(result.getMatchUuid(), "RESULT_NOT_SAVED", systemError);
+            return;
+        }
+
+        queue.add(new Spooled(write(result), result));
+        submitted.incrementAndGet();
+        matchTracer.record(result.getMatchUuid(), "RESULT_SPOOLED", null);
+
+        // 한 배치 이상 쌓였으면 주기를 기다리지 않고 저장
+        if (queue.size() >= batchSize) writer.execute(this::flushAll);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", queue.size());
+        stats.put("submitted", submitted.get());
+        stats.put("saved", saved.get());
+        stats.put("batches", batches.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("lastBatchMs", lastBatchMs);
+        stats.put("backoffMs", backoffMs);
+        stats.put("batchSize", batchSize);
+        return stats;
+    }
+
+    // 지금 쌓여 있는 결과를 배치 단위로 저장 (writer 스레드 전용, 재시도로 다시 들어간 결과는 다음 주기에 처리)
+    private void flushAll() {
+        if (System.currentTimeMillis() < retryAt) return; // DB 장애 백오프 중
+        int remaining = queue.size();
+        List<Spooled> batch = new ArrayList<>(batchSize);
+        while (remaining > 0 && queue.drainTo(batch, Math.min(batchSize, remaining)) > 0) {
+            remaining -= batch.size();
+            if (!flush(batch)) return; // DB 장애로 보이면 다음 주기에 재시도
+            batch.clear();
+        }
+    }
+
+    private boolean flush(List<Spooled> batch) {
+        long start = System.currentTimeMillis();
+        try {
+            save(batch.stream().map(Spooled::result).toList());
+            batch.forEach(this::delete);
+            saved.addAndGet(batch.size());
+            batches.incrementAndGet();
+            lastBatchSize = batch.size();
+            lastBatchMs = System.currentTimeMillis() - start;
+            for (Spooled spooled : batch) {
+                matchTracer.finish(spooled.result().getMatchUuid(), "PERSISTED", "batch=" + batch.size());
+            }
+            recovered();
+            return true;
+        } catch (Exception e) {
+            log.warn("[ResultWriter] Batch save failed ({} results), retrying one by one: {}", batch.size(), e.getMessage());
+        }
+
+        // 원인이 된 결과만 골라내기 위해 한 건씩 저장
+        Map<Spooled, Exception> failures = new LinkedHashMap<>();
+        for (Spooled spooled : batch) {
+            try {
+                save(List.of(spooled.result()));
+                delete(spooled);
+                saved.incrementAndGet();
+                matchTracer.finish(spooled.result().getMatchUuid(), "PERSISTED", "batch=1");
+            } catch (Exception e) {
+                failures.put(spooled, e);
+            }
+        }
+
+        if (failures.size() < batch.size()) {
+            // 같은 배치의 다른 결과는 저장됨 -> 실패한 결과만의 문제
+            failures.forEach(this::retry);
+            recovered();
+            return true;
+        }
+
+        // 전부 실패 -> DB 장애로 보고 시도 횟수는 그대로 두고 백오프 후 다시 시도
+        queue.addAll(batch);
+        backoffMs = backoffMs == 0 ? flushIntervalMs : Math.min(backoffMs * 2, maxBackoffMs);
+        retryAt = System.currentTimeMillis() + backoffMs;
+        log.warn("[ResultWriter] Database unavailable, {} results kept in spool, next attempt in {}ms",
+                queue.size(), backoffMs);
+        return false;
+    }
+
+    /**
+     * 트랜잭션 커밋까지 포함한 저장 시간 기록 (db_save, 성공한 저장만)
+     * - saveResults 안에서 재면 INSERT flush 와 커밋이 빠지므로 호출 측에서 측정
+     * - 모드가 섞인 배치는 mixed
+     */
+    private void save(List<PendingMatchResult> results) {
+        Timer.Sample sample = metrics.start();
+        matchService.saveResults(results);
+
+        Set<String> modes = new HashSet<>();
+        for (PendingMatchResult result : results) modes.add(result.getMode());
+        metrics.stop(sample, MatchMetrics.DB_SAVE, modes.size() == 1 ? modes.iterator().next() : MatchMetrics.MIXED,
+                MatchMetrics.NONE);
+        metrics.recordBatch(results.size());
+    }
+
+    private void recovered() {
+        if (backoffMs == 0) return;
+        log.info("[ResultWriter] Database available again, resuming");
+        backoffMs = 0;
+        retryAt = 0;
+    }
+
+    private void retry(Spooled spooled, Exception e) {
+        PendingMatchResult result = spooled.result();
+        result.setAttempts(result.getAttempts() + 1);
+        if (result.getAttempts() < maxAttempts) {
+            retried.incrementAndGet();
+            matchTracer.record(result.getMatchUuid(), "PERSIST_RETRY", e.getMessage());
+            queue.add(spooled);
+            return;
+        }
+
+        failed.incrementAndGet();
+        log.error("[ResultWriter] Giving up on match {} after {} attempts", result.getMatchUuid(), result.getAttempts(), e);
+        matchTracer.finish(result.getMatchUuid(), "PERSIST_FAILED", e.getMessage());
+        try {
+            Files.move(spooled.file(), spoolDir.resolve(FAILED_DIR).resolve(spooled.file().getFileName()),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException moveError) {
+            log.warn("[ResultWriter] Failed to move {} to failed/: {}", spooled.file(), moveError.getMessage());
+        }
+    }
+
+    // 임시 파일에 기록 + fsync 후 이름 변경 (부분 기록된 파일이 복구 대상이 되지 않도록)
+    private Path write(PendingMatchResult result) throws IOException {
+        String name = System.currentTimeMillis() + "-" + result.getMatchUuid().replaceAll("[^A-Za-z0-9_-]", "_") + ".json";
+        Path tmp = spoolDir.resolve(name + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(objectMapper.writeValueAsBytes(result));
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        return Files.move(tmp, spoolDir.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void delete(Spooled spooled) {
+        try {
+            Files.deleteIfExists(spooled.file());
+        } catch (IOException e) {
+            log.warn("[ResultWriter] Failed to delete spool file {}: {}", spooled.file(), e.getMessage());
+        }
+    }
+
+    // 파일 이름(기록 시각) 순서로 다시 큐에 넣음
+    private void recover() {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                try {
+                    queue.add(new Spooled(file, objectMapper.readValue(file.toFile(), PendingMatchResult.class)));
+                } catch (IOException e) {
+                    log.error("[ResultWriter] Unreadable spool file {}: {}", file, e.getMessage());
+                    Files.move(file, spoolDir.resolve(FAILED_DIR).resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            log.error("[ResultWriter] Failed to recover spool: {}", e.getMessage());
+        }
+    }
+
+    // 종료 시 남은 결과 저장 시도 (실패해도 스풀 파일이 남아 다음 시작 때 복구)
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        List<Spooled> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                save(batch.stream().map(Spooled::result).toList());
+                batch.forEach(this::delete);
+            } catch (Exception e) {
+                log.warn("[ResultWriter] {} results left in spool: {}", batch.size() + queue.size(), e.getMessage());
+                return;
+            }
+            batch.clear();
+        }
+    }
+}
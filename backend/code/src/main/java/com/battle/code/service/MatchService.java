@@ -1,15 +1,31 @@
 package com.battle.code.service;
 
 import com.battle.code.domain.*;
+import com.battle.code.dto.MatchEntrant;
+import com.battle.code.dto.MatchHistoryPageDto;
+import com.battle.code.dto.MatchListDto;
+import com.battle.code.dto.PendingMatchResult;
+import com.battle.code.dto.TournamentMatchDto;
 import com.battle.code.repository.GameMatchRepository;
+import com.battle.code.repository.MatchPlayerRepository;
 import com.battle.code.repository.UserRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -17,28 +33,116 @@ import java.util.Map;
 public class MatchService {
 
     private final GameMatchRepository matchRepository;
+    private final MatchPlayerRepository matchPlayerRepository;
     private final UserRepository userRepository;
-    private final ObjectMapper objectMapper;
+    private final ReplayService replayService;
+    private final RatingService ratingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final CodeBlobService codeBlobService;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    /**
+     * 전적 조회 (키셋 페이지네이션)
+     * - cursor: 이전 페이지의 nextCursor (첫 페이지는 null)
+     * - gameType / mode / result 는 선택 필터
+     * - 잘못된 cursor 는 IllegalArgumentException
+     */
+    @Transactional(readOnly = true)
+    public MatchHistoryPageDto getMatchHistory(Long userId, String gameType, String mode, String result,
+                                               String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+
+        LocalDateTime cursorPlayedAt = null;
+        Long cursorMatchId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorPlayedAt = LocalDateTime.parse(parts[0]);
+                cursorMatchId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // 한 건 더 조회해서 다음 페이지 여부 확인
+        List<MatchListDto> items = matchRepository.findMatchHistoryPage(
+                userId, gameType, mode, result, cursorPlayedAt, cursorMatchId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = items.size() > pageSize;
+        if (hasNext) items = items.subList(0, pageSize);
+
+        String nextCursor = null;
+        if (hasNext) {
+            MatchListDto last = items.get(items.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getPlayedAt() + "|" + last.getMatchId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new MatchHistoryPageDto(items, nextCursor, hasNext);
+    }
+
+    // match_player.played_at 도입 이전 기록 보정 (정렬 컬럼이 비어 있으면 전적에 나오지 않음)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPlayedAt() {
+        int updated = matchPlayerRepository.backfillPlayedAt();
+        if (updated > 0) log.info("[MatchService] Backfilled played_at for {} match_player rows", updated);
+    }
 
     /**
-     * [PvP] 매치 결과 저장 (유저 vs 유저)
+     * [PvP / AI] 매치 결과 일괄 저장 (MatchResultWriter 가 모아서 호출)
+     * - 유저는 프록시 참조만 사용 (조회 쿼리 없음, 존재하지 않으면 FK 위반으로 실패)
+     * - 이미 저장된 matchUuid 는 건너뜀 (재시작 후 스풀 재처리 시 중복 방지)
+     * - 시스템 에러 결과는 저장하지 않음
      */
     @Transactional
-    public void savePvPMatchResult(String matchId, Long p1Id, Long p2Id, Map<String, Object> resultData,
-                                   String p1Code, String p1Lang, String p2Code, String p2Lang) {
-
-        // 시스템 에러 체크
-        String systemError = (String) resultData.get("error");
-        if (systemError != null && !systemError.isEmpty()) {
-            log.warn("[MatchService] System error detected for match {}. Not saving.", matchId);
-            return;
+    public void saveResults(List<PendingMatchResult> results) {
+        Set<String> existing = matchRepository.findExistingMatchUuids(
+                results.stream().map(PendingMatchResult::getMatchUuid).toList());
+
+        List<GameMatch> matches = new ArrayList<>();
+        List<GameMatch> pvpMatches = new ArrayList<>();
+        Set<String> codes = new HashSet<>();
+        for (PendingMatchResult pending : results) {
+            if (existing.contains(pending.getMatchUuid())) {
+                log.warn("[MatchService] Match {} already saved. Skipping.", pending.getMatchUuid());
+                continue;
+            }
+            String systemError = (String) pending.getResult().get("error");
+            if (systemError != null && !systemError.isEmpty()) {
+                log.warn("[MatchService] System error detected for match {}. Not saving.", pending.getMatchUuid());
+                continue;
+            }
+
+            if ("PVP".equals(pending.getMode())) {
+                GameMatch match = buildPvPMatch(pending, codes);
+                matches.add(match);
+                pvpMatches.add(match);
+            } else {
+                matches.add(buildAiMatch(pending, codes));
+            }
         }
 
-        // 유저 조회
-        User p1User = userRepository.findById(p1Id)
-                .orElseThrow(() -> new RuntimeException("Player 1 not found: " + p1Id));
-        User p2User = userRepository.findById(p2Id)
-                .orElseThrow(() -> new RuntimeException("Player 2 not found: " + p2Id));
+        // 코드 원문은 code_blob 에 한 번만 저장, match_player 는 hash 만 참조
+        codeBlobService.store(codes);
+
+        // 저장 (Cascade 로 players, replay 도 함께 배치 INSERT)
+        matchRepository.saveAll(matches);
+        log.info("Match results saved: {} matches", matches.size());
+
+        // 레이팅 갱신 (같은 트랜잭션, 리더보드는 커밋 후 반영)
+        for (GameMatch match : pvpMatches) {
+            MatchPlayer p1 = match.getPlayers().get(0);
+            MatchPlayer p2 = match.getPlayers().get(1);
+            String p1Result = p1.getResult();
+            double p1Outcome = p1Result.equals(p2.getResult()) ? 0.5 : "WIN".equals(p1Result) ? 1.0 : "LOSE".equals(p1Result) ? 0.0 : 0.5;
+            ratingService.recordPvPResult(match.getGameType(), p1.getUser(), p2.getUser(), p1Outcome);
+        }
+    }
+
+    // PvP 매치 (유저 vs 유저)
+    private GameMatch buildPvPMatch(PendingMatchResult pending, Set<String> codes) {
+        Map<String, Object> resultData = pending.getResult();
 
         // 결과 데이터 파싱 (Null Safety)
         String winner = (String) resultData.get("winner"); // "p1", "p2", "draw"
@@ -50,7 +154,7 @@ public class MatchService {
 
         // GameMatch 생성
         GameMatch match = GameMatch.builder()
-                .matchUuid(matchId)
+                .matchUuid(pending.getMatchUuid())
                 .gameType("LAND_GRAB")
                 .mode("PVP")
                 .build();
@@ -58,10 +162,7 @@ public class MatchService {
         // 로그 저장 (탈주 시 로그 없음)
         if (resultData.get("logs") != null) {
             try {
-                String fullLogJson = objectMapper.writeValueAsString(resultData.get("logs"));
-                MatchReplay replay = MatchReplay.builder()
-                        .fullLog(fullLogJson)
-                        .build();
+                MatchReplay replay = replayService.create((List<Map<String, Object>>) resultData.get("logs"));
                 match.setReplay(replay);
             } catch (Exception e) {
                 log.error("Failed to serialize match logs", e);
@@ -69,30 +170,79 @@ public class MatchService {
         }
 
         // 플레이어 1 기록
-        String p1Result = determineResult("p1", winner, reason, resultData.get("p1_error") != null);
         match.addPlayer(MatchPlayer.builder()
-                .user(p1User)
+                .user(userRepository.getReferenceById(pending.getP1UserId()))
                 .playerIndex("p1")
-                .result(p1Result)
+                .result(determineResult("p1", winner, reason, resultData.get("p1_error") != null))
                 .score(p1Score)
-                .language(p1Lang)
-                .submittedCode(p1Code)
+                .language(pending.getP1Lang())
+                .codeHash(codeHash(pending.getP1Code(), codes))
                 .build());
 
         // 플레이어 2 기록
-        String p2Result = determineResult("p2", winner, reason, resultData.get("p2_error") != null);
         match.addPlayer(MatchPlayer.builder()
-                .user(p2User)
+                .user(userRepository.getReferenceById(pending.getP2UserId()))
                 .playerIndex("p2")
-                .result(p2Result)
+                .result(determineResult("p2", winner, reason, resultData.get("p2_error") != null))
                 .score(p2Score)
-                .language(p2Lang)
-                .submittedCode(p2Code)
+                .language(pending.getP2Lang())
+                .codeHash(codeHash(pending.getP2Code(), codes))
                 .build());
 
-        // 저장
-        matchRepository.save(match);
-        log.info("PvP Match Saved! ID: {}, Winner: {}", match.getId(), winner);
+        return match;
+    }
+
+    /**
+     * [토너먼트] 경기 결과 일괄 저장
+     * - 참가자 유저는 프록시 참조만 사용 (조회 쿼리 없음)
+     * - 리플레이 로그는 저장하지 않음
+     */
+    @Transactional
+    public void saveTournamentResults(List<TournamentMatchDto> results) {
+        List<GameMatch> matches = new ArrayList<>();
+        Set<String> codes = new HashSet<>();
+
+        for (TournamentMatchDto dto : results) {
+            Map<String, Object> resultData = dto.getResult();
+            String winner = (String) resultData.get("winner");
+            Map<String, Integer> scores = (Map<String, Integer>) resultData.get("final_scores");
+
+            GameMatch match = GameMatch.builder()
+                    .matchUuid(dto.getMatchUuid())
+                    .gameType("LAND_GRAB")
+                    .mode("TOURNAMENT")
+                    .build();
+
+            match.addPlayer(tournamentPlayer("p1", dto.getP1(),
+                    determineResult("p1", winner, null, resultData.get("p1_error") != null), scores, codes));
+            match.addPlayer(tournamentPlayer("p2", dto.getP2(),
+                    determineResult("p2", winner, null, resultData.get("p2_error") != null), scores, codes));
+
+            matches.add(match);
+        }
+
+        codeBlobService.store(codes);
+        matchRepository.saveAll(matches);
+        log.info("Tournament batch saved: {} matches", matches.size());
+    }
+
+    private MatchPlayer tournamentPlayer(String playerRole, MatchEntrant entrant, String result, Map<String, Integer> scores,
+                                         Set<String> codes) {
+        return MatchPlayer.builder()
+                .user(entrant.getUserId() != null ? userRepository.getReferenceById(entrant.getUserId()) : null)
+                .playerIndex(playerRole)
+                .result(result)
+                .score((scores != null && scores.containsKey(playerRole)) ? scores.get(playerRole) : 0)
+                .language(entrant.isAi() ? "python" : entrant.getLanguage())
+                .codeHash(codeHash(entrant.isAi() ? "AI-" + entrant.getAiDifficulty().toUpperCase() : entrant.getCode(), codes))
+                .build();
+    }
+
+    // 코드 -> code_blob hash (저장할 원문은 codes 에 모아서 한 번에 저장), 코드가 없으면 null
+    private String codeHash(String code, Set<String> codes) {
+        if (code == null) return null;
+        codes.add(code);
+        return CodeBlobService.hashOf(code);
     }
 
     // 승패 판정 헬퍼
@@ -103,22 +253,9 @@ public class MatchService {
         return "LOSE";
     }
 
-    @Transactional
-    public void saveMatchResult(Long userId, String matchId, Map<String, Object> resultData,
-                                String userCode, String language, String difficulty) {
-
-        // 에러 체크
-        String systemError = (String) resultData.get("error");
-
-        // 시스템 에러 시 저장 중단
-        if (systemError != null && !systemError.isEmpty()) {
-            System.out.println("[DEBUG] System error detected. Not saving.");
-            return;
-        }
-
-        // 유저 조회
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // AI 매치 (P1: 유저, P2: AI)
+    private GameMatch buildAiMatch(PendingMatchResult pending, Set<String> codes) {
+        Map<String, Object> resultData = pending.getResult();
 
         // 결과 데이터 파싱
         String winner = (String) resultData.get("winner"); // "p1", "p2", "draw"
@@ -126,18 +263,15 @@ public class MatchService {
 
         // GameMatch 생성 (공통 정보)
         GameMatch match = GameMatch.builder()
-                .matchUuid(matchId)
+                .matchUuid(pending.getMatchUuid())
                 .gameType("LAND_GRAB")
                 .mode("AI")
                 .build();
 
         // 로그 분리 저장 (MatchReplay)
         try {
-            // logs 배열을 JSON 문자열로 변환하여 저장
-            String fullLogJson = objectMapper.writeValueAsString(resultData.get("logs"));
-            MatchReplay replay = MatchReplay.builder()
-                    .fullLog(fullLogJson)
-                    .build();
+            // logs 배열을 압축 리플레이로 변환하여 저장
+            MatchReplay replay = replayService.create((List<Map<String, Object>>) resultData.get("logs"));
             match.setReplay(replay); // 연관관계 설정
         } catch (Exception e) {
             log.warn("save error: {}", e.getMessage());
@@ -152,12 +286,12 @@ public class MatchService {
         else if ("p2".equals(winner)) p1Result = "LOSE";
 
         MatchPlayer p1 = MatchPlayer.builder()
-                .user(user)
+                .user(userRepository.getReferenceById(pending.getP1UserId()))
                 .playerIndex("p1")
                 .result(p1Result)
                 .score(scores != null ? scores.get("p1") : 0)
-                .language(language)
-                .submittedCode(userCode)
+                .language(pending.getP1Lang())
+                .codeHash(codeHash(pending.getP1Code(), codes))
                 .build();
         match.addPlayer(p1);
 
@@ -172,13 +306,26 @@ public class MatchService {
                 .result(p2Result)
                 .score(scores != null ? scores.get("p2") : 0)
                 .language("python")
-                .submittedCode("AI-" + difficulty.toUpperCase()) // AI 난이도 기록
+                .codeHash(codeHash("AI-" + pending.getAiDifficulty().toUpperCase(), codes)) // AI 난이도 기록
                 .build();
         match.addPlayer(p2);
 
-        // 최종 저장 (Cascade 설정으로 match 저장 시 players, replay도 자동 저장됨)
-        matchRepository.save(match);
+        return match;
+    }
 
-        log.info("Match Saved! ID: {}" , match.getId());
+    /**
+     * ID 블록 테이블(*_seq) 을 기존 데이터 이후로 맞춤
+     * - IDENTITY 로 저장된 기존 행이 있어도 새로 할당받는 블록과 겹치지 않도록 max(id) + 블록 크기 이상으로 올림
+     * - MatchResultWriter 가 저장을 시작하기 전에 호출
+     */
+    @Transactional
+    public void alignIdSequences() {
+        for (String table : List.of("game_match", "match_player", "match_replay")) {
+            int updated = jdbcTemplate.update("UPDATE " + table + "_seq SET next_val = "
+                    + "(SELECT COALESCE(MAX(id), 0) + ? FROM " + table + ") "
+                    + "WHERE next_val <= (SELECT COALESCE(MAX(id), 0) + ? FROM " + table + ")",
+                    GameMatch.ID_ALLOCATION_SIZE + 1, GameMatch.ID_ALLOCATION_SIZE);
+            if (updated > 0) log.info("[MatchService] Aligned {}_seq with existing rows", table);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.battle.code.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * 매칭 대기열 변경 알림
+ * - 같은 노드: ApplicationEvent (QueueChanged) 로 즉시 전달
+ * - 다른 노드: Redis Pub/Sub (match_signal 채널, "{nodeId}|{gameType}") 로 전달 후 각 노드에서 ApplicationEvent 로 변환
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchSignalBus implements MessageListener {
+
+    private static final String CHANNEL = "match_signal";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public record QueueChanged(String gameType) {}
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public void publish(String gameType) {
+        eventPublisher.publishEvent(new QueueChanged(gameType));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "|" + gameType);
+        } catch (Exception e) {
+            // 다른 노드는 주기적 점검으로 처리
+            log.warn("[MatchSignal] Failed to publish: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.startsWith(nodeId)) return; // 자기 자신이 보낸 알림은 이미 처리됨
+        eventPublisher.publishEvent(new QueueChanged(body.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.battle.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 매치 단위 진행 기록 (타임라인)
+ * - 매칭 시 start 로 생성, 이후 큐 대기 -> 방 생성 -> 제출 -> 실행 -> 결과 전송 -> DB 저장 이벤트를 시각과 함께 누적
+ * - 최근 maxMatches 개 매치만 메모리에 보관 (오래된 매치부터 제거), 매치당 이벤트는 maxEvents 개까지
+ * - start 되지 않은 (또는 이미 밀려난) 매치의 이벤트는 무시
+ * - export 가 켜져 있으면 종료 이벤트 시점에 타임라인 전체를 match-trace 로거로 JSON 한 줄 출력
+ * - 노드별 메모리 기록 (다중 노드에서는 이벤트가 발생한 노드에만 남음)
+ */
+@Component
+public class MatchTracer {
+
+    private static final Logger exportLog = LoggerFactory.getLogger("match-trace");
+
+    private final ObjectMapper objectMapper;
+    private final int maxMatches;
+    private final int maxEvents;
+    private final boolean export;
+
+    // matchId -> 기록 (삽입 순서 = 매칭 순서)
+    private final LinkedHashMap<String, Trace> traces = new LinkedHashMap<>();
+
+    private long started = 0;
+    private long evicted = 0;
+    private long exported = 0;
+
+    public MatchTracer(ObjectMapper objectMapper,
+                       @Value("${match.trace.max-matches:1000}") int maxMatches,
+                       @Value("${match.trace.max-events:100}") int maxEvents,
+                       @Value("${match.trace.export:false}") boolean export) {
+        this.objectMapper = objectMapper;
+        this.maxMatches = maxMatches;
+        this.maxEvents = maxEvents;
+        this.export = export;
+    }
+
+    public record Event(long at, String event, String detail) {}
+
+    private static class Trace {
+        private final List<Event> events = new ArrayList<>();
+        private boolean finished;
+        private int dropped;
+    }
+
+    // 매치 기록 시작 (매칭 직후)
+    public synchronized void start(String matchId) {
+        if (traces.containsKey(matchId)) return;
+        traces.put(matchId, new Trace());
+        started++;
+        while (traces.size() > maxMatches) {
+            String eldest = traces.keySet().iterator().next();
+            traces.remove(eldest);
+            evicted++;
+        }
+    }
+
+    public void record(String matchId, String event, String detail) {
+        record(matchId, System.currentTimeMillis(), event, detail);
+    }
+
+    // 이미 지난 시각의 이벤트 기록 (큐 참가 시각 등)
+    public synchronized void record(String matchId, long at, String event, String detail) {
+        Trace trace = traces.get(matchId);
+        if (trace == null) return;
+        if (trace.events.size() >= maxEvents) {
+            trace.dropped++;
+            return;
+        }
+        trace.events.add(new Event(at, event, detail));
+    }
+
+    // 마지막 이벤트 기록 (결과 저장 완료/실패 등), export 대상
+    public void finish(String matchId, String event, String detail) {
+        Map<String, Object> timeline;
+        synchronized (this) {
+            Trace trace = traces.get(matchId);
+            if (trace == null || trace.finished) return;
+            record(matchId, event, detail);
+            trace.finished = true;
+            if (!export) return;
+            timeline = toTimeline(matchId, trace);
+            exported++;
+        }
+
+        try {
+            exportLog.info(objectMapper.writeValueAsString(timeline));
+        } catch (Exception e) {
+            exportLog.warn("Failed to export trace for match {}: {}", matchId, e.getMessage());
+        }
+    }
+
+    // 타임라인 조회 (시각순 정렬, 첫 이벤트 기준 경과 ms 포함), 없으면 null
+    public synchronized Map<String, Object> getTimeline(String matchId) {
+        Trace trace = traces.get(matchId);
+        return trace != null ? toTimeline(matchId, trace) : null;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("traces", traces.size());
+        stats.put("maxMatches", maxMatches);
+        stats.put("maxEvents", maxEvents);
+        stats.put("started", started);
+        stats.put("evicted", evicted);
+        stats.put("export", export);
+        stats.put("exported", exported);
+        return stats;
+    }
+
+    private Map<String, Object> toTimeline(String matchId, Trace trace) {
+        List<Event> events = new ArrayList<>(trace.events);
+        events.sort((a, b) -> Long.compare(a.at(), b.at()));
+        long origin = events.isEmpty() ? 0 : events.get(0).at();
+
+        List<Map<String, Object>> timeline = new ArrayList<>(events.size());
+        for (Event event : events) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("at", event.at());
+            entry.put("elapsedMs", event.at() - origin);
+            entry.put("event", event.event());
+            if (event.detail() != null) entry.put("detail", event.detail());
+            timeline.add(entry);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("matchId", matchId);
+        result.put("finished", trace.finished);
+        result.put("totalMs", events.isEmpty() ? 0 : events.get(events.size() - 1).at() - origin);
+        result.put("droppedEvents", trace.dropped);
+        result.put("events", timeline);
+        return result;
+    }
+}
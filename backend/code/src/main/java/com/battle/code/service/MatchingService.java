@@ -1,11 +1,17 @@
 package com.battle.code.service;
 
+import com.battle.code.repository.MatchRoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Slf4j
@@ -13,7 +19,34 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class MatchingService {
 
+    // KEYS: [queue, (room, session_p1, session_p2) * n], ARGV: [gameType, roomTtlMs, sessionTtlMs, (p1, p2, matchId, mapData) * n]
+    private static final RedisScript<List> PAIR_SCRIPT = new DefaultRedisScript<>("""
+            local queue = KEYS[1]
+            local gameType = ARGV[1]
+            local roomTtl = ARGV[2]
+            local sessionTtl = ARGV[3]
+            local created = {}
+            local count = (#ARGV - 3) / 4
+            for i = 0, count - 1 do
+                local p1 = ARGV[4 + i * 4]
+                local p2 = ARGV[5 + i * 4]
+                local matchId = ARGV[6 + i * 4]
+                if redis.call('ZSCORE', queue, p1) and redis.call('ZSCORE', queue, p2) then
+                    redis.call('ZREM', queue, p1, p2)
+                    redis.call('HSET', KEYS[2 + i * 3], 'gameType', gameType, 'p1', p1, 'p2', p2,
+                            'mapData', ARGV[7 + i * 4], 'status', 'PLAYING')
+                    redis.call('PEXPIRE', KEYS[2 + i * 3], roomTtl)
+                    redis.call('SET', KEYS[3 + i * 3], matchId, 'PX', sessionTtl)
+                    redis.call('SET', KEYS[4 + i * 3], matchId, 'PX', sessionTtl)
+                    created[#created + 1] = matchId
+                end
+            end
+            return created
+            """, List.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final MatchSignalBus matchSignalBus;
+    private final MatchRoomRepository matchRoomRepository;
 
     private String getQueueKey(String gameType) {
         return "match_queue:" + gameType;
@@ -33,6 +66,9 @@ public class MatchingService {
             // 없을 때만 추가 (새로 줄 서기)
             redisTemplate.opsForZSet().add(key, userId.toString(), System.currentTimeMillis());
             log.info("[match_queue] User joined queue: {}", userId);
+
+            // 대기 중인 상대가 있으면 바로 매칭되도록 알림
+            matchSignalBus.publish(gameType);
         } else {
             log.info("[match_queue] User already in queue: {}", userId);
         }
@@ -51,43 +87,52 @@ public class MatchingService {
     }
 
     /**
-     * 유저 매칭
-     * - Score(시간)가 가장 작은(오래된) 유저를 꺼냄
-     * - TypedTuple을 반환하여 유저ID와 Score(입장시간)를 모두 가져옴 (롤백 대비)
+     * 배치 매칭용 대기열 조회 (꺼내지 않음)
+     * - 오래 기다린 순서로 최대 count 명
      */
-    public ZSetOperations.TypedTuple<Object> popUserWithScore(String gameType) {
-        return redisTemplate.opsForZSet().popMin(getQueueKey(gameType));
+    public List<ZSetOperations.TypedTuple<Object>> peekOldest(String gameType, int count) {
+        Set<ZSetOperations.TypedTuple<Object>> tuples =
+                redisTemplate.opsForZSet().rangeWithScores(getQueueKey(gameType), 0, count - 1);
+        return tuples != null ? new ArrayList<>(tuples) : List.of();
     }
 
-    /**
-     * 롤백
-     * - 매칭 실패 시, 원래 기다리던 시간으로 다시 넣기
-     */
-    public void returnToQueue(String gameType, String userId, Double originalScore) {
-        String key = getQueueKey(gameType);
-        if (userId != null && originalScore != null) {
-            redisTemplate.opsForZSet().add(key, userId, originalScore);
-            log.info("↺ [Rollback] User {} returned to queue with score {}", userId, originalScore);
-        }
-    }
+    public record RoomRequest(String matchId, String p1Id, String p2Id, String mapDataJson) {}
 
     /**
+     * 매칭된 쌍들의 방 생성 (Redis 스크립트 한 번으로 원자적으로 처리)
+     * - 두 유저가 모두 아직 대기열에 있을 때만 대기열에서 제거하고 방/세션 생성
+     * - 그 사이 취소했거나 다른 노드가 먼저 매칭한 쌍은 아무것도 변경하지 않음
+     * - 반환: 실제로 생성된 matchId
      *
-     * Key: match_room:{matchId}
-     * Fields: p1, p2, gameType, mapData, status, p1_code, p2_code
+     * Key: match_room:{matchId} (TTL room.ttl-ms)
+     * Fields: p1, p2, gameType, mapData, status (+ 게임 진행 중 p1_code, p2_code)
+     * 유저 -> 매치ID 매핑 user_session:{userId} (TTL room.session-ttl-ms)
      */
-    public void createMatchRoom(String matchId, String gameType, String p1Id, String p2Id, String mapDataJson) {
-        String key = "match_room:" + matchId;
-        redisTemplate.opsForHash().put(key, "gameType", gameType);
-        redisTemplate.opsForHash().put(key, "p1", p1Id);
-        redisTemplate.opsForHash().put(key, "p2", p2Id);
-        redisTemplate.opsForHash().put(key, "mapData", mapDataJson);
-        redisTemplate.opsForHash().put(key, "status", "PLAYING");
-
-        // 유저 -> 매치ID 매핑 (접속 종료 처리용)
-        redisTemplate.opsForValue().set("user_session:" + p1Id, matchId);
-        redisTemplate.opsForValue().set("user_session:" + p2Id, matchId);
-
-        log.info("Match Room Created in Redis: {}", matchId);
+    public Set<String> createMatchRooms(String gameType, List<RoomRequest> requests) {
+        if (requests.isEmpty()) return Set.of();
+
+        List<String> keys = new ArrayList<>(1 + requests.size() * 3);
+        List<Object> args = new ArrayList<>(3 + requests.size() * 4);
+        keys.add(getQueueKey(gameType));
+        args.add(gameType);
+        args.add(String.valueOf(matchRoomRepository.getRoomTtl().toMillis()));
+        args.add(String.valueOf(matchRoomRepository.getSessionTtl().toMillis()));
+        for (RoomRequest request : requests) {
+            keys.add(MatchRoomRepository.roomKey(request.matchId()));
+            // 유저 -> 매치ID 매핑 (접속 종료 처리용)
+            keys.add(MatchRoomRepository.userSessionKey(request.p1Id()));
+            keys.add(MatchRoomRepository.userSessionKey(request.p2Id()));
+            args.add(request.p1Id());
+            args.add(request.p2Id());
+            args.add(request.matchId());
+            args.add(request.mapDataJson());
+        }
+
+        List<Object> created = redisTemplate.execute(PAIR_SCRIPT, keys, args.toArray());
+        Set<String> matchIds = new HashSet<>();
+        if (created != null) created.forEach(id -> matchIds.add((String) id));
+
+        log.info("Match Rooms Created in Redis: {}/{}", matchIds.size(), requests.size());
+        return matchIds;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.battle.code.service;
+
+import com.battle.code.domain.User;
+import com.battle.code.domain.UserRating;
+import com.battle.code.repository.UserRatingRepository;
+import com.battle.code.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Elo 레이팅 + 리더보드
+ * - DB(user_rating)가 원본, PvP 결과 저장 트랜잭션 안에서 갱신
+ * - 커밋 후 Redis Sorted Set (leaderboard:{gameType}) 에 반영 -> 순위/상위 N/주변 조회는 O(log n)
+ * - 주기적으로 DB 기준으로 Sorted Set 을 다시 만들어 누락분 보정
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingService {
+
+    public static final int INITIAL_RATING = 1200;
+    private static final int PROVISIONAL_GAMES = 30; // 이 판수 전까지는 변동폭 크게
+    private static final int K_PROVISIONAL = 40;
+    private static final int K_DEFAULT = 24;
+    private static final int RECONCILE_PAGE_SIZE = 1000;
+
+    private final UserRatingRepository ratingRepository;
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private String getLeaderboardKey(String gameType) {
+        return "leaderboard:" + gameType;
+    }
+
+    /**
+     * PvP 결과 반영
+     * - 호출한 트랜잭션 안에서 두 유저의 레이팅 행을 잠그고 갱신 (교착 방지를 위해 userId 순서로 잠금)
+     * - p1Score: 1 승, 0.5 무, 0 패
+     */
+    @Transactional
+    public void recordPvPResult(String gameType, User p1, User p2, double p1Score) {
+        if (p1.getId().equals(p2.getId())) return;
+
+        boolean p1First = p1.getId() < p2.getId();
+        UserRating first = loadForUpdate(p1First ? p1 : p2, gameType);
+        UserRating second = loadForUpdate(p1First ? p2 : p1, gameType);
+        UserRating r1 = p1First ? first : second;
+        UserRating r2 = p1First ? second : first;
+
+        int before1 = r1.getRating();
+        int before2 = r2.getRating();
+        double expected1 = 1.0 / (1.0 + Math.pow(10, (before2 - before1) / 400.0));
+
+        apply(r1, p1Score, expected1);
+        apply(r2, 1 - p1Score, 1 - expected1);
+
+        log.info("[Rating] {} {}: {} -> {}, {}: {} -> {}", gameType,
+                p1.getId(), before1, r1.getRating(), p2.getId(), before2, r2.getRating());
+
+        Map<Long, Integer> updated = Map.of(p1.getId(), r1.getRating(), p2.getId(), r2.getRating());
+        afterCommit(() -> updated.forEach((userId, rating) ->
+                redisTemplate.opsForZSet().add(getLeaderboardKey(gameType), String.valueOf(userId), rating)));
+    }
+
+    // 여러 유저의 현재 레이팅 (기록 없으면 INITIAL_RATING)
+    public List<Integer> getRatings(String gameType, List<String> userIds) {
+        if (userIds.isEmpty()) return List.of();
+        List<Double> scores = redisTemplate.opsForZSet().score(getLeaderboardKey(gameType), userIds.toArray());
+        List<Integer> ratings = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            Double score = scores != null ? scores.get(i) : null;
+            ratings.add(score != null ? score.intValue() : INITIAL_RATING);
+        }
+        return ratings;
+    }
+
+    // 상위 N명
+    public List<Map<String, Object>> getTop(String gameType, int limit) {
+        Set<ZSetOperations.TypedTuple<Object>> tuples =
+                redisTemplate.opsForZSet().reverseRangeWithScores(getLeaderboardKey(gameType), 0, limit - 1);
+        return toEntries(tuples, 0);
+    }
+
+    /**
+     * 내 순위와 위아래 range 명
+     * - 레이팅 기록이 없으면 null
+     */
+    public Map<String, Object> getAround(String gameType, Long userId, int range) {
+        String key = getLeaderboardKey(gameType);
+        Long rank = redisTemplate.opsForZSet().reverseRank(key, String.valueOf(userId));
+        if (rank == null) return null;
+
+        long start = Math.max(0, rank - range);
+        Set<ZSetOperations.TypedTuple<Object>> tuples =
+                redisTemplate.opsForZSet().reverseRangeWithScores(key, start, rank + range);
+        Double score = redisTemplate.opsForZSet().score(key, String.valueOf(userId));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("userId", userId);
+        result.put("rank", rank + 1);
+        result.put("rating", score != null ? score.intValue() : null);
+        result.put("total", redisTemplate.opsForZSet().zCard(key));
+        result.put("neighbours", toEntries(tuples, start));
+        return result;
+    }
+
+    /**
+     * DB 기준으로 리더보드 재구성
+     * - 임시 키에 채운 뒤 RENAME 으로 교체 (조회 중에도 빈 순위표가 보이지 않음)
+     */
+    @Scheduled(fixedDelayString = "${rating.reconcile-interval-ms:600000}", initialDelay = 30000)
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        for (String gameType : ratingRepository.findGameTypes()) {
+            String key = getLeaderboardKey(gameType);
+            String tmpKey = key + ":rebuild";
+            redisTemplate.delete(tmpKey);
+
+            long afterId = 0;
+            int count = 0;
+            Slice<UserRating> page;
+            do {
+                page = ratingRepository.findPage(gameType, afterId, PageRequest.of(0, RECONCILE_PAGE_SIZE));
+                Set<ZSetOperations.TypedTuple<Object>> tuples = new HashSet<>();
+                for (UserRating rating : page) {
+                    tuples.add(new DefaultTypedTuple<>(String.valueOf(rating.getUser().getId()), (double) rating.getRating()));
+                    afterId = rating.getId();
+                }
+                if (!tuples.isEmpty()) {
+                    redisTemplate.opsForZSet().add(tmpKey, tuples);
+                    count += tuples.size();
+                }
+            } while (page.hasNext());
+
+            if (count > 0) {
+                redisTemplate.rename(tmpKey, key);
+            }
+            log.debug("[Rating] Leaderboard {} reconciled ({} users)", key, count);
+        }
+    }
+
+    private UserRating loadForUpdate(User user, String gameType) {
+        return ratingRepository.findForUpdate(user.getId(), gameType)
+                .orElseGet(() -> ratingRepository.saveAndFlush(UserRating.builder()
+                        .user(user)
+                        .gameType(gameType)
+                        .rating(INITIAL_RATING)
+                        .build()));
+    }
+
+    private void apply(UserRating rating, double score, double expected) {
+        int k = rating.getGamesPlayed() < PROVISIONAL_GAMES ? K_PROVISIONAL : K_DEFAULT;
+        rating.setRating((int) Math.round(rating.getRating() + k * (score - expected)));
+        rating.setGamesPlayed(rating.getGamesPlayed() + 1);
+        if (score == 1) rating.setWins(rating.getWins() + 1);
+        else if (score == 0) rating.setLosses(rating.getLosses() + 1);
+        else rating.setDraws(rating.getDraws() + 1);
+    }
+
+    private List<Map<String, Object>> toEntries(Set<ZSetOperations.TypedTuple<Object>> tuples, long startRank) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        if (tuples == null || tuples.isEmpty()) return entries;
+
+        List<Long> userIds = new ArrayList<>();
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) userIds.add(Long.parseLong((String) tuple.getValue()));
+
+        Map<Long, String> nicknames = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) nicknames.put(user.getId(), user.getNickname());
+
+        long rank = startRank;
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+            Long userId = Long.parseLong((String) tuple.getValue());
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", ++rank);
+            entry.put("userId", userId);
+            entry.put("nickname", nicknames.get(userId));
+            entry.put("rating", tuple.getScore() != null ? tuple.getScore().intValue() : null);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    // 트랜잭션 커밋 후 실행 (트랜잭션 밖이면 즉시)
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    // 다음 reconcile 에서 보정
+                    log.warn("[Rating] Failed to update leaderboard: {}", e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,368 @@
+package com.battle.code.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.*;
+
+/**
+ * LandGrab 리플레이 압축 포맷 (v1)
+ * - 고정 데이터(보드 크기, 벽)는 한 번만 저장
+ * - 턴마다 변경분만 저장: 플레이어 [act, x, y, alive], 색칠된 칸 [cell, owner, ...], 코인 추가/제거, 점수
+ * - KEYFRAME_INTERVAL 턴마다 전체 보드(런 길이 인코딩)와 코인 목록을 저장 (구간 조회 시 가까운 키프레임부터 복원)
+ * - 구버전(턴 배열 JSON) 데이터도 그대로 디코딩 가능
+ *
+ * 예) {"v":1,"boardSize":15,"keyframeInterval":10,"walls":[[3,4],...],
+ *      "turns":[{"t":0,"p1":["START",0,0,1],"p2":[...],"board":[1,1,0,223,2,1],"coins":[[..]],"s":[0,0]},
+ *               {"t":1,"p1":["RIGHT",1,0,1],"p2":[...],"paint":[1,1,223,2],"coins+":[[..]],"coins-":[[..]],"s":[1,1]}]}
+ */
+@Component
+@RequiredArgsConstructor
+public class ReplayCodec {
+
+    public static final int VERSION = 1;
+    private static final int KEYFRAME_INTERVAL = 10;
+    private static final int DEFAULT_BOARD_SIZE = LandGrabMapGenerator.BOARD_SIZE;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 인코딩 결과 + 키프레임 구간 위치 (json 문자 인덱스)
+     * - json[0, headerEnd): 헤더 ("turns":[ 까지)
+     * - segmentStarts[i] ~ 다음 구간 시작(마지막은 turnsEnd): keyframeTurns[i] 에서 시작하는 턴들 (구분자 ',' 로 시작할 수 있음)
+     * - json[turnsEnd, 끝): 닫는 괄호
+     */
+    public record Encoded(String json, int headerEnd, int[] keyframeTurns, int[] segmentStarts, int turnsEnd, int lastTurn) {}
+
+    /**
+     * referee 턴 로그 -> 압축 포맷
+     */
+    public String encode(List<Map<String, Object>> logs) throws IOException {
+        return encodeIndexed(logs).json();
+    }
+
+    public Encoded encodeIndexed(List<Map<String, Object>> logs) throws IOException {
+        if (logs == null) logs = List.of();
+
+        int size = boardSize(logs);
+        StringWriter out = new StringWriter();
+
+        int headerEnd, turnsEnd, lastTurn = -1;
+        List<Integer> keyframeTurns = new ArrayList<>();
+        List<Integer> segmentStarts = new ArrayList<>();
+
+        try (JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+            g.writeStartObject();
+            g.writeNumberField("v", VERSION);
+            g.writeNumberField("boardSize", size);
+            g.writeNumberField("keyframeInterval", KEYFRAME_INTERVAL);
+
+            g.writeArrayFieldStart("walls");
+            for (Map<String, Object> turn : logs) {
+                if (turn.get("walls") == null) continue;
+                for (Object wall : (List<?>) turn.get("walls")) {
+                    List<?> point = (List<?>) wall;
+                    writePoint(g, toInt(point.get(0)), toInt(point.get(1)));
+                }
+                break;
+            }
+            g.writeEndArray();
+
+            g.writeArrayFieldStart("turns");
+            g.flush();
+            headerEnd = out.getBuffer().length();
+
+            int[] prevBoard = null;
+            List<Integer> prevCoins = null;
+
+            for (Map<String, Object> turn : logs) {
+                g.flush();
+                int turnStart = out.getBuffer().length();
+                g.writeStartObject();
+
+                if (turn.get("system_error") != null) {
+                    g.writeStringField("err", String.valueOf(turn.get("system_error")));
+                    g.writeEndObject();
+                    continue;
+                }
+
+                int t = toInt(turn.get("turn"));
+                boolean keyframe = prevBoard == null || t % KEYFRAME_INTERVAL == 0;
+                if (keyframe) {
+                    keyframeTurns.add(t);
+                    segmentStarts.add(segmentStarts.isEmpty() ? headerEnd : turnStart);
+                }
+                lastTurn = t;
+
+                g.writeNumberField("t", t);
+                writePlayer(g, "p1", turn.get("p1"));
+                writePlayer(g, "p2", turn.get("p2"));
+
+                int[] board = flattenBoard(turn.get("board"), size);
+                List<Integer> coins = toCells(turn.get("coins"), size);
+
+                if (keyframe) {
+                    // 키프레임: 전체 상태
+                    writeBoardRuns(g, board);
+
+                    g.writeArrayFieldStart("coins");
+                    for (int cell : coins) writePoint(g, cell % size, cell / size);
+                    g.writeEndArray();
+                } else {
+                    // 변경분만
+                    writePaint(g, prevBoard, board);
+                    writeCoinDelta(g, "coins+", coins, prevCoins, size);
+                    writeCoinDelta(g, "coins-", prevCoins, coins, size);
+                }
+
+                Map<?, ?> scores = (Map<?, ?>) turn.get("scores");
+                g.writeArrayFieldStart("s");
+                g.writeNumber(scores != null ? toInt(scores.get("p1")) : 0);
+                g.writeNumber(scores != null ? toInt(scores.get("p2")) : 0);
+                g.writeEndArray();
+
+                g.writeEndObject();
+                prevBoard = board;
+                prevCoins = coins;
+            }
+            g.flush();
+            turnsEnd = out.getBuffer().length();
+            g.writeEndArray();
+            g.writeEndObject();
+        }
+        return new Encoded(out.toString(), headerEnd,
+                keyframeTurns.stream().mapToInt(Integer::intValue).toArray(),
+                segmentStarts.stream().mapToInt(Integer::intValue).toArray(),
+                turnsEnd, lastTurn);
+    }
+
+    // 저장된 값이 압축 포맷인지 (구버전은 턴 배열)
+    public boolean isCompact(String stored) {
+        for (int i = 0; i < stored.length(); i++) {
+            char c = stored.charAt(i);
+            if (!Character.isWhitespace(c)) return c == '{';
+        }
+        return false;
+    }
+
+    /**
+     * 저장된 리플레이 -> referee 턴 로그 형식 (turn, p1, p2, coins, walls, board, scores)
+     */
+    public List<Map<String, Object>> decode(String stored) throws IOException {
+        return decode(stored, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * fromTurn ~ toTurn 구간만 복원
+     * - fromTurn 이하의 가장 가까운 키프레임부터 변경분을 적용
+     */
+    public List<Map<String, Object>> decode(String stored, int fromTurn, int toTurn) throws IOException {
+        JsonNode root = objectMapper.readTree(stored);
+        List<Map<String, Object>> result = new ArrayList<>();
+
+        if (root == null || root.isNull()) return result;
+        if (root.isArray()) {
+            return decodeLegacy(root, fromTurn, toTurn);
+        }
+
+        int size = root.path("boardSize").asInt(DEFAULT_BOARD_SIZE);
+        List<List<Integer>> walls = new ArrayList<>();
+        for (JsonNode wall : root.path("walls")) walls.add(List.of(wall.get(0).asInt(), wall.get(1).asInt()));
+
+        JsonNode turns = root.path("turns");
+
+        // 시작 키프레임 탐색
+        int start = 0;
+        for (int i = 0; i < turns.size(); i++) {
+            JsonNode node = turns.get(i);
+            if (node.has("t") && node.get("t").asInt() > fromTurn) break;
+            if (node.has("board")) start = i;
+        }
+
+        int[] board = new int[size * size];
+        List<Integer> coins = new ArrayList<>();
+        int lastTurn = start > 0 ? turns.get(start).path("t").asInt() - 1 : -1;
+
+        for (int i = start; i < turns.size(); i++) {
+            JsonNode node = turns.get(i);
+
+            if (node.has("err")) {
+                // 시스템 에러는 마지막 턴 다음 턴에 발생
+                if (lastTurn + 1 >= fromTurn && lastTurn + 1 <= toTurn) {
+                    Map<String, Object> error = new LinkedHashMap<>();
+                    error.put("system_error", node.get("err").asText());
+                    result.add(error);
+                }
+                continue;
+            }
+
+            int t = node.get("t").asInt();
+            if (t > toTurn) break;
+            lastTurn = t;
+
+            if (node.has("board")) {
+                JsonNode runs = node.get("board");
+                int c = 0;
+                for (int r = 0; r + 1 < runs.size(); r += 2) {
+                    int owner = runs.get(r).asInt();
+                    for (int n = runs.get(r + 1).asInt(); n > 0 && c < board.length; n--) board[c++] = owner;
+                }
+                coins.clear();
+                for (JsonNode coin : node.path("coins")) coins.add(toCell(coin, size));
+            } else {
+                JsonNode paint = node.path("paint");
+                for (int p = 0; p + 1 < paint.size(); p += 2) board[paint.get(p).asInt()] = paint.get(p + 1).asInt();
+                for (JsonNode coin : node.path("coins-")) coins.remove(Integer.valueOf(toCell(coin, size)));
+                for (JsonNode coin : node.path("coins+")) coins.add(toCell(coin, size));
+            }
+
+            if (t < fromTurn) continue;
+
+            Map<String, Object> turn = new LinkedHashMap<>();
+            turn.put("turn", t);
+            turn.put("p1", readPlayer(node.get("p1")));
+            turn.put("p2", readPlayer(node.get("p2")));
+
+            List<List<Integer>> coinPoints = new ArrayList<>(coins.size());
+            for (int cell : coins) coinPoints.add(List.of(cell % size, cell / size));
+            turn.put("coins", coinPoints);
+            turn.put("walls", walls);
+
+            List<List<Integer>> rows = new ArrayList<>(size);
+            for (int y = 0; y < size; y++) {
+                List<Integer> row = new ArrayList<>(size);
+                for (int x = 0; x < size; x++) row.add(board[y * size + x]);
+                rows.add(row);
+            }
+            turn.put("board", rows);
+
+            Map<String, Object> scores = new LinkedHashMap<>();
+            scores.put("p1", node.path("s").path(0).asInt());
+            scores.put("p2", node.path("s").path(1).asInt());
+            turn.put("scores", scores);
+
+            result.add(turn);
+        }
+        return result;
+    }
+
+    private List<Map<String, Object>> decodeLegacy(JsonNode root, int fromTurn, int toTurn) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        int lastTurn = -1;
+        for (JsonNode node : root) {
+            int t = node.has("turn") ? node.get("turn").asInt() : lastTurn + 1;
+            if (node.has("turn")) lastTurn = t;
+            if (t < fromTurn || t > toTurn) continue;
+            result.add(objectMapper.convertValue(node, Map.class));
+        }
+        return result;
+    }
+
+    private int boardSize(List<Map<String, Object>> logs) {
+        for (Map<String, Object> turn : logs) {
+            if (turn.get("board") instanceof List<?> board && !board.isEmpty()) return board.size();
+        }
+        return DEFAULT_BOARD_SIZE;
+    }
+
+    private int[] flattenBoard(Object board, int size) {
+        int[] cells = new int[size * size];
+        if (!(board instanceof List<?> rows)) return cells;
+        for (int y = 0; y < rows.size() && y < size; y++) {
+            List<?> row = (List<?>) rows.get(y);
+            for (int x = 0; x < row.size() && x < size; x++) cells[y * size + x] = toInt(row.get(x));
+        }
+        return cells;
+    }
+
+    private List<Integer> toCells(Object points, int size) {
+        List<Integer> cells = new ArrayList<>();
+        if (!(points instanceof List<?> list)) return cells;
+        for (Object point : list) {
+            List<?> p = (List<?>) point;
+            cells.add(toInt(p.get(1)) * size + toInt(p.get(0)));
+        }
+        return cells;
+    }
+
+    private int toCell(JsonNode point, int size) {
+        return point.get(1).asInt() * size + point.get(0).asInt();
+    }
+
+    // 보드 전체를 [owner, 연속 칸 수, ...] 로 저장 (셀 인덱스 순서)
+    private void writeBoardRuns(JsonGenerator g, int[] board) throws IOException {
+        g.writeArrayFieldStart("board");
+        int start = 0;
+        for (int c = 1; c <= board.length; c++) {
+            if (c < board.length && board[c] == board[start]) continue;
+            g.writeNumber(board[start]);
+            g.writeNumber(c - start);
+            start = c;
+        }
+        g.writeEndArray();
+    }
+
+    private void writePaint(JsonGenerator g, int[] prev, int[] board) throws IOException {
+        boolean started = false;
+        for (int c = 0; c < board.length; c++) {
+            if (board[c] == prev[c]) continue;
+            if (!started) {
+                g.writeArrayFieldStart("paint");
+                started = true;
+            }
+            g.writeNumber(c);
+            g.writeNumber(board[c]);
+        }
+        if (started) g.writeEndArray();
+    }
+
+    // from 에는 있고 except 에는 없는 코인
+    private void writeCoinDelta(JsonGenerator g, String field, List<Integer> from, List<Integer> except, int size) throws IOException {
+        boolean started = false;
+        for (int cell : from) {
+            if (except.contains(cell)) continue;
+            if (!started) {
+                g.writeArrayFieldStart(field);
+                started = true;
+            }
+            writePoint(g, cell % size, cell / size);
+        }
+        if (started) g.writeEndArray();
+    }
+
+    private void writePlayer(JsonGenerator g, String field, Object player) throws IOException {
+        if (!(player instanceof Map<?, ?> p)) return;
+        List<?> pos = (List<?>) p.get("pos");
+        g.writeArrayFieldStart(field);
+        g.writeString(String.valueOf(p.get("act")));
+        g.writeNumber(pos != null ? toInt(pos.get(0)) : 0);
+        g.writeNumber(pos != null ? toInt(pos.get(1)) : 0);
+        g.writeNumber(Boolean.TRUE.equals(p.get("alive")) ? 1 : 0);
+        g.writeEndArray();
+    }
+
+    private Map<String, Object> readPlayer(JsonNode node) {
+        if (node == null) return null;
+        Map<String, Object> player = new LinkedHashMap<>();
+        player.put("act", node.get(0).asText());
+        player.put("pos", List.of(node.get(1).asInt(), node.get(2).asInt()));
+        player.put("alive", node.get(3).asInt() == 1);
+        return player;
+    }
+
+    private void writePoint(JsonGenerator g, int x, int y) throws IOException {
+        g.writeStartArray();
+        g.writeNumber(x);
+        g.writeNumber(y);
+        g.writeEndArray();
+    }
+
+    private int toInt(Object value) {
+        return value instanceof Number n ? n.intValue() : 0;
+    }
+}
@@ -0,0 +1,239 @@
+package com.battle.code.service;
+
+import com.battle.code.domain.MatchReplay;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 리플레이 저장/조회
+ * - 저장: ReplayCodec 압축 포맷을 gzip 으로 한 번 더 압축해 match_replay.payload (BLOB) 에 저장, codec 컬럼에 포맷 기록
+ *   헤더와 키프레임 구간을 각각 별도의 gzip 멤버로 압축해 이어 붙임 (전체를 풀면 원래 JSON 과 동일)
+ *   구간별 [시작 턴, 오프셋, 길이] 는 turn_index 에 저장
+ * - 원본 조회: 엔티티를 거치지 않고 JDBC 스트림을 응답으로 바로 복사
+ *   (클라이언트가 gzip 을 받으면 압축된 그대로, 아니면 스트리밍으로 풀어서 전송)
+ * - 구간 조회: turn_index 로 필요한 구간 바이트만 읽어서 복원
+ * - codec 이 null 인 구버전 행은 full_log 텍스트를 사용
+ *   full_log 에는 턴 배열 JSON 또는 (gzip 저장 이전에 저장된) ReplayCodec 압축 포맷이 들어 있으므로 첫 글자로 구분
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReplayService {
+
+    public static final String CODEC_GZIP_V1 = "replay-v1+gzip";
+    public static final String CODEC_COMPACT_V1 = "replay-v1";
+    public static final String CODEC_LEGACY = "json";
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String REPLAY_BY_UUID =
+            "FROM match_replay r JOIN game_match m ON r.game_match_id = m.id WHERE m.match_uuid = ?";
+
+    private final ReplayCodec replayCodec;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 저장된 리플레이 정보
+     * - payloadLength: 압축 저장된 바이트 수 (구버전 행은 null)
+     */
+    public record ReplayMeta(String codec, String turnIndex, Long payloadLength) {
+        // full_log 텍스트로 저장된 구버전 행 (codec: replay-v1 또는 json)
+        public boolean isLegacy() {
+            return !CODEC_GZIP_V1.equals(codec);
+        }
+    }
+
+    /**
+     * referee 턴 로그 -> 저장용 엔티티
+     */
+    public MatchReplay create(List<Map<String, Object>> logs) throws IOException {
+        ReplayCodec.Encoded encoded = replayCodec.encodeIndexed(logs);
+        String json = encoded.json();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // 헤더
+        gzipMember(bytes, json.substring(0, encoded.headerEnd()));
+        int headerLength = bytes.size();
+
+        // 키프레임 구간
+        int[] starts = encoded.segmentStarts();
+        int[][] segments = new int[starts.length][];
+        for (int i = 0; i < starts.length; i++) {
+            int end = i + 1 < starts.length ? starts[i + 1] : encoded.turnsEnd();
+            int offset = bytes.size();
+            gzipMember(bytes, json.substring(starts[i], end));
+            segments[i] = new int[]{encoded.keyframeTurns()[i], offset, bytes.size() - offset};
+        }
+
+        // 닫는 괄호
+        gzipMember(bytes, json.substring(encoded.turnsEnd()));
+
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("headerLength", headerLength);
+        index.put("lastTurn", encoded.lastTurn());
+        index.put("segments", segments);
+
+        return MatchReplay.builder()
+                .codec(CODEC_GZIP_V1)
+                .payload(bytes.toByteArray())
+                .turnIndex(objectMapper.writeValueAsString(index))
+                .build();
+    }
+
+    /**
+     * 리플레이 정보 조회 (없으면 null)
+     * - 구버전 행의 codec 은 full_log 의 첫 글자로 판별: '{' 면 "replay-v1", 아니면 "json"
+     */
+    public ReplayMeta findMeta(String matchUuid) {
+        List<ReplayMeta> metas = jdbcTemplate.query(
+                "SELECT CASE WHEN r.codec IS NOT NULL THEN r.codec"
+                        + " WHEN LEFT(LTRIM(r.full_log), 1) = '{' THEN '" + CODEC_COMPACT_V1 + "'"
+                        + " ELSE '" + CODEC_LEGACY + "' END AS codec,"
+                        + " r.turn_index, LENGTH(r.payload) AS payload_length "
+                        + REPLAY_BY_UUID,
+                (rs, rowNum) -> new ReplayMeta(rs.getString("codec"), rs.getString("turn_index"),
+                        rs.getObject("payload_length", Long.class)),
+                matchUuid);
+        return metas.isEmpty() ? null : metas.get(0);
+    }
+
+    // 해당 매치의 참가자인지 (리플레이 조회 권한)
+    public boolean isParticipant(String matchUuid, Long userId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM match_player mp JOIN game_match m ON mp.game_match_id = m.id "
+                        + "WHERE m.match_uuid = ? AND mp.user_id = ?",
+                Integer.class, matchUuid, userId);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 저장된 리플레이를 out 으로 스트리밍
+     * - gzipped=true 이고 압축 저장된 행이면 압축 해제 없이 그대로 복사 (Content-Encoding: gzip 으로 전송)
+     */
+    public void stream(String matchUuid, boolean gzipped, OutputStream out) {
+        jdbcTemplate.query("SELECT r.codec, r.payload, r.full_log " + REPLAY_BY_UUID, rs -> {
+            try {
+                if (rs.getString("codec") == null) {
+                    Reader reader = rs.getCharacterStream("full_log");
+                    if (reader == null) return;
+                    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    reader.transferTo(writer);
+                    writer.flush();
+                    return;
+                }
+
+                try (InputStream payload = rs.getBinaryStream("payload")) {
+                    if (payload == null) return;
+                    InputStream source = gzipped ? payload : new GZIPInputStream(payload, BUFFER_SIZE);
+                    source.transferTo(out);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, matchUuid);
+    }
+
+    /**
+     * 압축 저장된 payload 의 일부 바이트만 스트리밍 (HTTP Range)
+     * - start 는 0 부터
+     */
+    public void streamRange(String matchUuid, long start, long length, OutputStream out) {
+        jdbcTemplate.query("SELECT SUBSTRING(r.payload, ?, ?) AS part " + REPLAY_BY_UUID, rs -> {
+            try (InputStream part = rs.getBinaryStream("part")) {
+                if (part != null) part.transferTo(out);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, start + 1, length, matchUuid);
+    }
+
+    /**
+     * fromTurn ~ toTurn 구간의 턴 로그 (referee 턴 로그 형식)
+     * - turn_index 가 있으면 헤더와 해당 키프레임 구간 바이트만 DB 에서 읽어서 복원
+     * - 없으면(구버전 행) 전체를 한 번 복원한 뒤 구간만 추림
+     * - lastTurn: 마지막 턴 번호 (뷰어 슬라이더 범위용)
+     */
+    public Map<String, Object> readTurns(String matchUuid, ReplayMeta meta, int fromTurn, int toTurn) throws IOException {
+        List<Map<String, Object>> turns;
+        int lastTurn = -1;
+
+        if (meta.turnIndex() != null) {
+            JsonNode index = objectMapper.readTree(meta.turnIndex());
+            JsonNode segments = index.path("segments");
+            lastTurn = index.path("lastTurn").asInt(-1);
+
+            // fromTurn 이하의 마지막 키프레임 구간 ~ toTurn 이하에서 시작하는 마지막 구간
+            int first = 0, last = -1;
+            for (int i = 0; i < segments.size(); i++) {
+                int keyframeTurn = segments.get(i).get(0).asInt();
+                if (keyframeTurn <= fromTurn) first = i;
+                if (keyframeTurn <= toTurn) last = i;
+            }
+
+            StringBuilder builder = new StringBuilder(readPart(matchUuid, 0, index.path("headerLength").asLong()));
+            if (last >= first && last >= 0) {
+                long offset = segments.get(first).get(1).asLong();
+                long end = segments.get(last).get(1).asLong() + segments.get(last).get(2).asLong();
+                String segment = readPart(matchUuid, offset, end - offset);
+                builder.append(segment.startsWith(",") ? segment.substring(1) : segment);
+            }
+            turns = replayCodec.decode(builder.append("]}").toString(), fromTurn, toTurn);
+        } else {
+            ByteArrayOutputStream full = new ByteArrayOutputStream();
+            stream(matchUuid, false, full);
+            List<Map<String, Object>> all = replayCodec.decode(full.toString(StandardCharsets.UTF_8));
+
+            // 턴 번호가 없는 항목(system_error)은 직전 턴 다음 턴으로 취급 (ReplayCodec 구간 복원과 동일)
+            turns = new ArrayList<>();
+            int turn = -1;
+            for (Map<String, Object> entry : all) {
+                if (entry.get("turn") instanceof Number n) {
+                    turn = n.intValue();
+                    lastTurn = Math.max(lastTurn, turn);
+                    if (turn >= fromTurn && turn <= toTurn) turns.add(entry);
+                } else if (turn + 1 >= fromTurn && turn + 1 <= toTurn) {
+                    turns.add(entry);
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("matchUuid", matchUuid);
+        result.put("fromTurn", fromTurn);
+        result.put("toTurn", Math.min(toTurn, lastTurn));
+        result.put("lastTurn", lastTurn);
+        result.put("turns", turns);
+        return result;
+    }
+
+    private String readPart(String matchUuid, long start, long length) {
+        ByteArrayOutputStream part = new ByteArrayOutputStream();
+        streamRange(matchUuid, start, length, part);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(part.toByteArray()), BUFFER_SIZE)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void gzipMember(ByteArrayOutputStream bytes, String text) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes, BUFFER_SIZE), StandardCharsets.UTF_8)) {
+            writer.write(text);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.battle.code.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 엔진 컨테이너 워밍 풀
+ * - 미리 띄워둔 code-battle-engine 컨테이너를 작업 단위로 대여(lease)하고 반납 시 초기화
+ * - 호스트 디렉토리는 마운트하지 않음 (다른 매치의 작업 디렉토리에 접근 불가)
+ *   대여 시 해당 매치 작업 디렉토리만 컨테이너 전용 /app/work 로 docker cp, 반납 시 /app/work 삭제
+ * - 풀이 비어 있으면 null 을 반환하여 호출 측이 기존 방식(docker run --rm)으로 실행하도록 함
+ */
+@Slf4j
+@Component
+public class SandboxContainerPool {
+
+    public static final String ENGINE_IMAGE = "code-battle-engine";
+    public static final String WORK_DIR = "/app/work";
+
+    /**
+     * 반납 시 초기화 (각각 별도 docker exec, 하나라도 실패하면 컨테이너 폐기)
+     * - KILL: 남은 referee/플레이어 프로세스 종료. 플레이어 명령은 모두 /app/work/{player}/ 절대 경로를 포함
+     *   sh 를 거치지 않고 pkill 을 직접 실행하므로 패턴이 초기화 명령 자신과 매칭되지 않음 (pkill 은 자기 자신 제외)
+     *   종료 코드 0(종료함), 1(남은 프로세스 없음)만 정상
+     * - WIPE: 작업 디렉토리와 /tmp 정리
+     */
+    private static final String[] KILL_COMMAND = {"pkill", "-9", "-f", "[r]eferee\\.py|[/]app/work/"};
+    private static final String WIPE_SCRIPT = "rm -rf " + WORK_DIR + " && find /tmp -mindepth 1 -delete";
+
+    private final int targetSize;
+    private final long leaseTimeoutMs;
+
+    private final BlockingQueue<PooledContainer> idle = new LinkedBlockingQueue<>();
+    private final Map<String, PooledContainer> all = new ConcurrentHashMap<>();
+
+    // 메트릭
+    private final AtomicLong leaseCount = new AtomicLong();
+    private final AtomicLong reuseCount = new AtomicLong();
+    private final AtomicLong coldFallbackCount = new AtomicLong();
+    private final AtomicLong discardCount = new AtomicLong();
+    private final AtomicLong leaseWaitNanosTotal = new AtomicLong();
+    private final AtomicLong leaseWaitNanosMax = new AtomicLong();
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    public SandboxContainerPool(@Value("${sandbox.pool.size:2}") int targetSize,
+                                @Value("${sandbox.pool.lease-timeout-ms:200}") long leaseTimeoutMs) {
+        this.targetSize = targetSize;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+    }
+
+    /**
+     * 컨테이너 대여
+     * - leaseTimeoutMs 동안 유휴 컨테이너를 기다림
+     * - 없으면 null (cold start fallback)
+     */
+    public Lease lease() throws InterruptedException {
+        if (targetSize <= 0) {
+            coldFallbackCount.incrementAndGet();
+            return null;
+        }
+
+        long start = System.nanoTime();
+        PooledContainer container = idle.poll(leaseTimeoutMs, TimeUnit.MILLISECONDS);
+        long waited = System.nanoTime() - start;
+
+        if (container == null) {
+            coldFallbackCount.incrementAndGet();
+            log.debug("[SandboxPool] No idle container after {}ms. Falling back to cold start.", leaseTimeoutMs);
+            return null;
+        }
+
+        leaseCount.incrementAndGet();
+        leaseWaitNanosTotal.addAndGet(waited);
+        leaseWaitNanosMax.accumulateAndGet(waited, Math::max);
+        if (container.jobs > 0) reuseCount.incrementAndGet();
+        container.jobs++;
+        inUse.incrementAndGet();
+
+        return new Lease(container);
+    }
+
+    // 반납: 초기화 성공 시 풀로 복귀, 실패 시 폐기 (다음 refill 에서 보충)
+    private void release(PooledContainer container) {
+        inUse.decrementAndGet();
+        try {
+            int killed = runQuietly(exec(container, KILL_COMMAND));
+            if (killed == 0 || killed == 1) {
+                int wiped = runQuietly(exec(container, "sh", "-c", WIPE_SCRIPT));
+                if (wiped == 0) {
+                    idle.offer(container);
+                    return;
+                }
+                log.warn("[SandboxPool] Workspace wipe failed for container {} (exit {}). Discarding.", container.name, wiped);
+            } else {
+                log.warn("[SandboxPool] Process cleanup failed for container {} (pkill exit {}). Discarding.", container.name, killed);
+            }
+        } catch (Exception e) {
+            log.warn("[SandboxPool] Reset error for container {}: {}", container.name, e.getMessage());
+        }
+        discard(container);
+    }
+
+    // 주기적으로 목표 크기만큼 컨테이너 보충
+    @Scheduled(fixedDelayString = "${sandbox.pool.refill-interval-ms:5000}")
+    public void refill() {
+        while (all.size() < targetSize) {
+            PooledContainer container = startContainer();
+            if (container == null) return; // Docker 미가용 시 다음 주기에 재시도
+            all.put(container.id, container);
+            idle.offer(container);
+        }
+    }
+
+    private PooledContainer startContainer() {
+        String name = "code-battle-pool-" + UUID.randomUUID().toString().substring(0, 8);
+        try {
+            ProcessBuilder pb = new ProcessBuilder(
+                    "docker", "run", "-d", "--rm", "--init",
+                    "--name", name,
+                    ENGINE_IMAGE,
+                    "sleep", "infinity"
+            );
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (process.waitFor() != 0 || output.isBlank()) {
+                log.warn("[SandboxPool] Failed to start pooled container: {}", output);
+                return null;
+            }
+            log.info("[SandboxPool] Warm container started: {}", name);
+            return new PooledContainer(output, name);
+        } catch (IOException e) {
+            log.warn("[SandboxPool] Docker unavailable: {}", e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void discard(PooledContainer container) {
+        all.remove(container.id);
+        idle.remove(container);
+        discardCount.incrementAndGet();
+        try {
+            runQuietly(new ProcessBuilder("docker", "rm", "-f", container.id));
+        } catch (Exception e) {
+            log.warn("[SandboxPool] Failed to remove container {}: {}", container.name, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (PooledContainer container : all.values()) {
+            discard(container);
+        }
+    }
+
+    private ProcessBuilder exec(PooledContainer container, String... command) {
+        List<String> args = new ArrayList<>(List.of("docker", "exec", container.id));
+        args.addAll(List.of(command));
+        return new ProcessBuilder(args);
+    }
+
+    private int runQuietly(ProcessBuilder pb) throws IOException, InterruptedException {
+        pb.redirectErrorStream(true);
+        Process process = pb.start();
+        process.getInputStream().readAllBytes();
+        return process.waitFor();
+    }
+
+    public Map<String, Object> getStats() {
+        long leases = leaseCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("targetSize", targetSize);
+        stats.put("size", all.size());
+        stats.put("idle", idle.size());
+        stats.put("inUse", inUse.get());
+        stats.put("leases", leases);
+        stats.put("reuses", reuseCount.get());
+        stats.put("coldFallbacks", coldFallbackCount.get());
+        stats.put("discarded", discardCount.get());
+        stats.put("leaseWaitAvgMs", leases == 0 ? 0.0 : leaseWaitNanosTotal.get() / 1_000_000.0 / leases);
+        stats.put("leaseWaitMaxMs", leaseWaitNanosMax.get() / 1_000_000.0);
+        return stats;
+    }
+
+    private static class PooledContainer {
+        private final String id;
+        private final String name;
+        private int jobs; // 이 컨테이너가 처리한 작업 수 (재사용 판단용)
+
+        private PooledContainer(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * 대여된 컨테이너 핸들
+     * - copyIn -> exec -> (필요 시) copyOut 순서로 사용
+     * - try-with-resources 로 사용하며 close 시 초기화 후 풀에 반납
+     */
+    public class Lease implements AutoCloseable {
+        private final PooledContainer container;
+        private boolean closed;
+
+        private Lease(PooledContainer container) {
+            this.container = container;
+        }
+
+        // 매치 작업 디렉토리 내용을 컨테이너 전용 작업 디렉토리로 복사
+        public void copyIn(Path matchDir) throws IOException, InterruptedException {
+            copy(matchDir.toString() + "/.", container.id + ":" + WORK_DIR);
+        }
+
+        // 컨테이너 작업 디렉토리 내용을 매치 작업 디렉토리로 복사 (컴파일 결과 회수)
+        public void copyOut(Path matchDir) throws IOException, InterruptedException {
+            copy(container.id + ":" + WORK_DIR + "/.", matchDir.toString());
+        }
+
+        // 대여 컨테이너 안에서 referee 를 실행하는 docker exec 커맨드 구성
+        public ProcessBuilder exec(String... command) {
+            String[] prefix = {
+                    "docker", "exec",
+                    "-e", "REFEREE_DATA_DIR=" + WORK_DIR,
+                    "-e", "REFEREE_PLAYERS_DIR=" + WORK_DIR,
+                    container.id
+            };
+            String[] full = new String[prefix.length + command.length];
+            System.arraycopy(prefix, 0, full, 0, prefix.length);
+            System.arraycopy(command, 0, full, prefix.length, command.length);
+            return new ProcessBuilder(full);
+        }
+
+        private void copy(String source, String target) throws IOException, InterruptedException {
+            if (runQuietly(new ProcessBuilder("docker", "cp", source.replace("\\", "/"), target.replace("\\", "/"))) != 0) {
+                throw new IOException("docker cp failed: " + source + " -> " + target);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            release(container);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.battle.code.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * referee.py 실행 계층
+ * - 기본: DockerSandboxExecutor (워밍 풀 컨테이너 또는 단발 컨테이너)
+ * - sandbox.executor=fake: FakeSandboxExecutor (Docker 없이 기록된 출력을 지연 후 반환, 부하 테스트용)
+ */
+public interface SandboxExecutor {
+
+    /**
+     * referee.py [gameType] [mode] 실행 시작
+     * - matchDir 는 작업 디렉토리 (단발 컨테이너면 mountPoints 에 마운트)
+     */
+    Execution start(String gameType, Path matchDir, String mode, String... mountPoints) throws IOException, InterruptedException;
+
+    /**
+     * 실행 중인 referee
+     * - try-with-resources 로 사용 (close 시 컨테이너 반납)
+     */
+    interface Execution extends AutoCloseable {
+
+        // stdout + stderr
+        InputStream output();
+
+        int waitFor() throws InterruptedException;
+
+        // 읽기 실패 시 강제 종료
+        void destroy();
+
+        @Override
+        void close();
+    }
+}
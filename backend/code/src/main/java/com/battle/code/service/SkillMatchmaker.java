@@ -0,0 +1,165 @@
+package com.battle.code.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 레이팅 기반 배치 매칭
+ * - 틱마다 대기열 앞쪽 batchSize 명을 한 번에 짝지음
+ * - 허용 레이팅 차이 = baseWindow + 대기 초 * windowGrowthPerSec (최대 maxWindow)
+ * - 오래 기다린 유저부터 허용 범위 안에서 레이팅이 가장 가까운 상대와 매칭
+ * - 대기열 길이, 틱당 매칭 수, 매칭까지 대기시간 백분위 집계
+ */
+@Component
+public class SkillMatchmaker {
+
+    private static final int WAIT_SAMPLES = 1024;
+
+    private final int batchSize;
+    private final int baseWindow;
+    private final int windowGrowthPerSec;
+    private final int maxWindow;
+
+    private final Map<String, GameStats> stats = new ConcurrentHashMap<>();
+
+    public SkillMatchmaker(@Value("${matching.batch-size:200}") int batchSize,
+                           @Value("${matching.base-window:100}") int baseWindow,
+                           @Value("${matching.window-growth-per-sec:20}") int windowGrowthPerSec,
+                           @Value("${matching.max-window:1000}") int maxWindow) {
+        this.batchSize = batchSize;
+        this.baseWindow = baseWindow;
+        this.windowGrowthPerSec = windowGrowthPerSec;
+        this.maxWindow = maxWindow;
+    }
+
+    public record Candidate(String userId, double joinedAt, int rating) {}
+
+    public record Pair(Candidate p1, Candidate p2) {}
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 짝짓기
+     * - candidates 는 입장 시간 순 (대기열 순서)
+     * - p1 은 더 오래 기다린 유저
+     */
+    public List<Pair> pair(List<Candidate> candidates, long now) {
+        List<Pair> pairs = new ArrayList<>();
+        int n = candidates.size();
+        if (n < 2) return pairs;
+
+        // 레이팅 순 정렬 위치
+        Integer[] byRating = new Integer[n];
+        for (int i = 0; i < n; i++) byRating[i] = i;
+        Arrays.sort(byRating, Comparator.comparingInt(i -> candidates.get(i).rating()));
+        int[] position = new int[n];
+        for (int p = 0; p < n; p++) position[byRating[p]] = p;
+
+        boolean[] taken = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (taken[i]) continue;
+            Candidate me = candidates.get(i);
+            int window = window(me, now);
+
+            // 레이팅 순서에서 양옆으로 가장 가까운 미매칭 유저 탐색
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int p = position[i] - 1; p >= 0; p--) {
+                if (taken[byRating[p]]) continue;
+                bestDistance = me.rating() - candidates.get(byRating[p]).rating();
+                best = byRating[p];
+                break;
+            }
+            for (int p = position[i] + 1; p < n; p++) {
+                if (taken[byRating[p]]) continue;
+                int distance = candidates.get(byRating[p]).rating() - me.rating();
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = byRating[p];
+                }
+                break;
+            }
+
+            if (best < 0 || bestDistance > window) continue;
+            taken[i] = true;
+            taken[best] = true;
+            pairs.add(new Pair(me, candidates.get(best)));
+        }
+        return pairs;
+    }
+
+    private int window(Candidate candidate, long now) {
+        long waitedSec = Math.max(0, (now - (long) candidate.joinedAt()) / 1000);
+        return (int) Math.min(maxWindow, baseWindow + waitedSec * windowGrowthPerSec);
+    }
+
+    // 틱 결과 기록 (waitsMs: 이번 틱에 매칭된 유저들의 대기시간)
+    public void recordTick(String gameType, long queueDepth, int pairCount, List<Long> waitsMs) {
+        GameStats s = stats.computeIfAbsent(gameType, k -> new GameStats());
+        s.record(queueDepth, pairCount, waitsMs);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("batchSize", batchSize);
+        result.put("baseWindow", baseWindow);
+        result.put("windowGrowthPerSec", windowGrowthPerSec);
+        result.put("maxWindow", maxWindow);
+        stats.forEach((gameType, s) -> result.put(gameType, s.snapshot()));
+        return result;
+    }
+
+    private static class GameStats {
+        private final AtomicLong ticks = new AtomicLong();
+        private final AtomicLong totalPairs = new AtomicLong();
+        private volatile long queueDepth;
+        private volatile int lastPairs;
+        private volatile int maxPairs;
+
+        // 최근 매칭 대기시간 (링 버퍼)
+        private final long[] waits = new long[WAIT_SAMPLES];
+        private int waitCount;
+        private int waitCursor;
+
+        private synchronized void record(long depth, int pairCount, List<Long> waitsMs) {
+            ticks.incrementAndGet();
+            totalPairs.addAndGet(pairCount);
+            queueDepth = depth;
+            lastPairs = pairCount;
+            maxPairs = Math.max(maxPairs, pairCount);
+            for (long wait : waitsMs) {
+                waits[waitCursor] = wait;
+                waitCursor = (waitCursor + 1) % WAIT_SAMPLES;
+                waitCount = Math.min(waitCount + 1, WAIT_SAMPLES);
+            }
+        }
+
+        private synchronized Map<String, Object> snapshot() {
+            long[] sorted = Arrays.copyOf(waits, waitCount);
+            Arrays.sort(sorted);
+
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("queueDepth", queueDepth);
+            s.put("ticks", ticks.get());
+            s.put("totalPairs", totalPairs.get());
+            s.put("lastTickPairs", lastPairs);
+            s.put("maxTickPairs", maxPairs);
+            s.put("waitMsP50", percentile(sorted, 0.50));
+            s.put("waitMsP90", percentile(sorted, 0.90));
+            s.put("waitMsP99", percentile(sorted, 0.99));
+            s.put("waitSamples", sorted.length);
+            return s;
+        }
+
+        private Long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return null;
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.battle.code.service;
+
+import com.battle.code.domain.MatchPlayer;
+import com.battle.code.dto.MatchEntrant;
+import com.battle.code.dto.TournamentMatchDto;
+import com.battle.code.dto.TournamentRequestDto;
+import com.battle.code.repository.MatchPlayerRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 토너먼트 일괄 실행기 (저장된 제출 코드 + AI 봇)
+ * - ROUND_ROBIN: 모든 참가자 쌍을 한 번씩 대결
+ * - SWISS: 라운드마다 승점이 비슷한 참가자끼리 대결 (재대결 회피, 홀수면 최하위 부전승)
+ * - 경기는 tournament.parallelism 개의 스레드에서 동시에 실행
+ *   (기본: 워밍 컨테이너 수 sandbox.pool.size, 풀을 쓰지 않으면(0) CPU 코어 수)
+ *   풀보다 스레드가 많으면 남는 경기는 lease 대기 후 콜드 컨테이너로 실행되어 오히려 느려짐
+ * - 결과는 tournament.batch-size 단위로 모아서 저장
+ * - 끝난 토너먼트는 tournament.retention-ms 가 지나면 메모리에서 제거
+ */
+@Slf4j
+@Service
+public class TournamentService {
+
+    private static final double WIN_POINTS = 1.0;
+    private static final double DRAW_POINTS = 0.5;
+
+    private final LandGrabService landGrabService;
+    private final MatchService matchService;
+    private final MatchPlayerRepository matchPlayerRepository;
+    private final MatchMetrics metrics;
+    private final int batchSize;
+    private final long retentionMs;
+
+    private final ExecutorService matchPool;
+    private final ExecutorService coordinator = Executors.newCachedThreadPool(namedThreads("tournament-coordinator"));
+    private final Map<String, Tournament> tournaments = new ConcurrentHashMap<>();
+
+    public TournamentService(LandGrabService landGrabService,
+                             MatchService matchService,
+                             MatchPlayerRepository matchPlayerRepository,
+                             MatchMetrics metrics,
+                             @Value("${tournament.parallelism:0}") int parallelism,
+                             @Value("${tournament.batch-size:50}") int batchSize,
+                             @Value("${tournament.retention-ms:3600000}") long retentionMs,
+                             @Value("${sandbox.pool.size:2}") int sandboxPoolSize) {
+        this.landGrabService = landGrabService;
+        this.matchService = matchService;
+        this.matchPlayerRepository = matchPlayerRepository;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.retentionMs = retentionMs;
+
+        int threads = parallelism > 0 ? parallelism
+                : sandboxPoolSize > 0 ? sandboxPoolSize
+                : Runtime.getRuntime().availableProcessors();
+        this.matchPool = Executors.newFixedThreadPool(threads, namedThreads("tournament-match"));
+    }
+
+    /**
+     * 토너먼트 시작
+     * - 참가자 로딩 후 즉시 반환, 경기는 백그라운드에서 진행
+     */
+    public Map<String, Object> start(TournamentRequestDto request) {
+        List<MatchEntrant> entrants = loadEntrants(request);
+        if (entrants.size() < 2) {
+            throw new IllegalArgumentException("Tournament needs at least 2 entrants");
+        }
+
+        String format = request.getFormat() != null ? request.getFormat().toUpperCase() : "ROUND_ROBIN";
+        if (!format.equals("ROUND_ROBIN") && !format.equals("SWISS")) {
+            throw new IllegalArgumentException("Unsupported format: " + request.getFormat());
+        }
+
+        int rounds = format.equals("SWISS")
+                ? (request.getRounds() != null ? request.getRounds() : (int) Math.ceil(Math.log(entrants.size()) / Math.log(2)))
+                : 1;
+
+        Tournament tournament = new Tournament(UUID.randomUUID().toString(), format, rounds, entrants);
+        tournaments.put(tournament.id, tournament);
+
+        coordinator.execute(() -> run(tournament));
+
+        log.info("[TOURNAMENT] Started - id={}, format={}, entrants={}, rounds={}",
+                tournament.id, format, entrants.size(), rounds);
+        return tournament.snapshot();
+    }
+
+    public Map<String, Object> getTournament(String id) {
+        Tournament tournament = tournaments.get(id);
+        return tournament != null ? tournament.snapshot() : null;
+    }
+
+    private List<MatchEntrant> loadEntrants(TournamentRequestDto request) {
+        List<MatchEntrant> entrants = new ArrayList<>();
+
+        if (request.getSubmissionIds() != null && !request.getSubmissionIds().isEmpty()) {
+            Set<String> seen = new HashSet<>();
+            for (MatchPlayer mp : matchPlayerRepository.findAllWithUserByIdIn(request.getSubmissionIds())) {
+                // AI 기록(user 없음)이나 코드 없는 기록(탈주)은 제외
+                String code = mp.resolveCode();
+                if (mp.getUser() == null || code == null) continue;
+                // 같은 유저가 같은 코드로 여러 번 제출한 기록은 한 명의 참가자로
+                String codeKey = mp.getCodeHash() != null ? mp.getCodeHash() : CodeBlobService.hashOf(code);
+                if (!seen.add(mp.getUser().getId() + ":" + mp.getLanguage() + ":" + codeKey)) continue;
+                entrants.add(new MatchEntrant("sub-" + mp.getId(), mp.getUser().getId(),
+                        code, mp.getLanguage(), null));
+            }
+        }
+
+        if (request.getAiBots() != null) {
+            for (String difficulty : new LinkedHashSet<>(request.getAiBots())) {
+                String diff = difficulty.toLowerCase();
+                entrants.add(new MatchEntrant("ai-" + diff, null, null, "python", diff));
+            }
+        }
+        return entrants;
+    }
+
+    private void run(Tournament tournament) {
+        try {
+            if (tournament.format.equals("ROUND_ROBIN")) {
+                playRound(tournament, roundRobinPairings(tournament.entrants));
+            } else {
+                for (int round = 1; round <= tournament.rounds; round++) {
+                    tournament.currentRound = round;
+                    playRound(tournament, swissPairings(tournament));
+                }
+            }
+            flush(tournament, true);
+            tournament.status = "DONE";
+        } catch (Exception e) {
+            log.error("[TOURNAMENT] Failed - id={}", tournament.id, e);
+            tournament.status = "FAILED";
+        }
+        tournament.finishedAt = LocalDateTime.now();
+        log.info("[TOURNAMENT] Finished - id={}, status={}, matches={}, failed={}",
+                tournament.id, tournament.status, tournament.completed.get(), tournament.failed.get());
+    }
+
+    // 라운드 내 경기는 병렬 실행, 라운드가 끝날 때까지 대기
+    private void playRound(Tournament tournament, List<MatchEntrant[]> pairings) {
+        tournament.totalMatches.addAndGet(pairings.size());
+
+        CompletableFuture<?>[] futures = pairings.stream()
+                .map(pair -> CompletableFuture.runAsync(() -> play(tournament, pair[0], pair[1]), matchPool))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private void play(Tournament tournament, MatchEntrant p1, MatchEntrant p2) {
+        String matchId = UUID.randomUUID().toString();
+        try {
+            Map<String, Object> result = landGrabService.runHeadToHead(matchId, p1, p2);
+            if (result.get("error") != null && result.get("p1_error") == null && result.get("p2_error") == null) {
+                throw new RuntimeException(String.valueOf(result.get("error"))); // 시스템 에러
+            }
+            result.remove("logs");
+
+            tournament.record(p1, p2, (String) result.get("winner"));
+            tournament.completed.incrementAndGet();
+
+            synchronized (tournament.pending) {
+                tournament.pending.add(new TournamentMatchDto(matchId, p1, p2, result));
+            }
+            flush(tournament, false);
+        } catch (Exception e) {
+            tournament.failed.incrementAndGet();
+            log.warn("[TOURNAMENT] Match failed - id={}, {} vs {}: {}",
+                    tournament.id, p1.getEntrantId(), p2.getEntrantId(), e.getMessage());
+        }
+    }
+
+    // batchSize 만큼 모였거나 마지막이면 저장
+    private void flush(Tournament tournament, boolean force) {
+        List<TournamentMatchDto> batch;
+        synchronized (tournament.pending) {
+            if (tournament.pending.isEmpty() || (!force && tournament.pending.size() < batchSize)) return;
+            batch = new ArrayList<>(tournament.pending);
+            tournament.pending.clear();
+        }
+
+        try {
+            // 커밋까지 포함한 저장 시간
+            Timer.Sample sample = metrics.start();
+            matchService.saveTournamentResults(batch);
+            metrics.stop(sample, MatchMetrics.DB_SAVE, "TOURNAMENT", MatchMetrics.NONE);
+            metrics.recordBatch(batch.size());
+        } catch (Exception e) {
+            log.error("[TOURNAMENT] Batch save failed - id={}, size={}", tournament.id, batch.size(), e);
+        }
+    }
+
+    // 모든 쌍 (진영은 번갈아 배정)
+    private List<MatchEntrant[]> roundRobinPairings(List<MatchEntrant> entrants) {
+        List<MatchEntrant[]> pairings = new ArrayList<>();
+        for (int i = 0; i < entrants.size(); i++) {
+            for (int j = i + 1; j < entrants.size(); j++) {
+                pairings.add((i + j) % 2 == 0
+                        ? new MatchEntrant[]{entrants.get(i), entrants.get(j)}
+                        : new MatchEntrant[]{entrants.get(j), entrants.get(i)});
+            }
+        }
+        return pairings;
+    }
+
+    // 승점순 정렬 후 위에서부터 아직 만나지 않은 상대와 짝지음
+    private List<MatchEntrant[]> swissPairings(Tournament tournament) {
+        List<MatchEntrant> ranked = new ArrayList<>(tournament.entrants);
+        ranked.sort(Comparator.comparingDouble((MatchEntrant e) -> -tournament.standing(e).points)
+                .thenComparing(MatchEntrant::getEntrantId));
+
+        // 홀수면 부전승을 받은 적 없는 최하위에게 부전승
+        if (ranked.size() % 2 == 1) {
+            for (int i = ranked.size() - 1; i >= 0; i--) {
+                Standing standing = tournament.standing(ranked.get(i));
+                if (!standing.hadBye) {
+                    standing.hadBye = true;
+                    standing.points += WIN_POINTS;
+                    ranked.remove(i);
+                    break;
+                }
+            }
+        }
+
+        List<MatchEntrant[]> pairings = new ArrayList<>();
+        while (ranked.size() >= 2) {
+            MatchEntrant first = ranked.remove(0);
+            int opponentIndex = 0;
+            for (int i = 0; i < ranked.size(); i++) {
+                if (!tournament.hasPlayed(first, ranked.get(i))) {
+                    opponentIndex = i;
+                    break;
+                }
+            }
+            MatchEntrant second = ranked.remove(opponentIndex);
+            pairings.add(new MatchEntrant[]{first, second});
+        }
+        return pairings;
+    }
+
+    // 보관 기간이 지난 완료 토너먼트 정리
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedTournaments() {
+        LocalDateTime threshold = LocalDateTime.now().minusNanos(retentionMs * 1_000_000);
+        tournaments.values().removeIf(t -> t.finishedAt != null && t.finishedAt.isBefore(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        matchPool.shutdownNow();
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static class Standing {
+        private double points;
+        private int wins;
+        private int draws;
+        private int losses;
+        private boolean hadBye;
+    }
+
+    private static class Tournament {
+        private final String id;
+        private final String format;
+        private final int rounds;
+        private final List<MatchEntrant> entrants;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private final Map<String, Standing> standings = new HashMap<>();
+        private final Set<String> played = new HashSet<>();
+        private final List<TournamentMatchDto> pending = new ArrayList<>();
+
+        private final AtomicInteger totalMatches = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile int currentRound = 1;
+        private volatile String status = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+
+        private Tournament(String id, String format, int rounds, List<MatchEntrant> entrants) {
+            this.id = id;
+            this.format = format;
+            this.rounds = rounds;
+            this.entrants = entrants;
+            for (MatchEntrant entrant : entrants) standings.put(entrant.getEntrantId(), new Standing());
+        }
+
+        private synchronized Standing standing(MatchEntrant entrant) {
+            return standings.get(entrant.getEntrantId());
+        }
+
+        private synchronized boolean hasPlayed(MatchEntrant a, MatchEntrant b) {
+            return played.contains(pairKey(a, b));
+        }
+
+        private synchronized void record(MatchEntrant p1, MatchEntrant p2, String winner) {
+            played.add(pairKey(p1, p2));
+            Standing s1 = standings.get(p1.getEntrantId());
+            Standing s2 = standings.get(p2.getEntrantId());
+
+            if ("p1".equals(winner)) {
+                s1.points += WIN_POINTS; s1.wins++; s2.losses++;
+            } else if ("p2".equals(winner)) {
+                s2.points += WIN_POINTS; s2.wins++; s1.losses++;
+            } else {
+                s1.points += DRAW_POINTS; s2.points += DRAW_POINTS; s1.draws++; s2.draws++;
+            }
+        }
+
+        private String pairKey(MatchEntrant a, MatchEntrant b) {
+            String x = a.getEntrantId(), y = b.getEntrantId();
+            return x.compareTo(y) < 0 ? x + "|" + y : y + "|" + x;
+        }
+
+        private synchronized Map<String, Object> snapshot() {
+            List<Map<String, Object>> table = new ArrayList<>();
+            for (MatchEntrant entrant : entrants) {
+                Standing s = standings.get(entrant.getEntrantId());
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("entrantId", entrant.getEntrantId());
+                row.put("userId", entrant.getUserId());
+                row.put("points", s.points);
+                row.put("wins", s.wins);
+                row.put("draws", s.draws);
+                row.put("losses", s.losses);
+                table.add(row);
+            }
+            table.sort(Comparator.comparingDouble((Map<String, Object> row) -> -(double) row.get("points")));
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("tournamentId", id);
+            snapshot.put("format", format);
+            snapshot.put("status", status);
+            snapshot.put("round", currentRound);
+            snapshot.put("rounds", rounds);
+            snapshot.put("totalMatches", totalMatches.get());
+            snapshot.put("completedMatches", completed.get());
+            snapshot.put("failedMatches", failed.get());
+            snapshot.put("startedAt", startedAt);
+            snapshot.put("finishedAt", finishedAt);
+            snapshot.put("standings", table);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.battle.code.service;
+
+import com.battle.code.domain.User;
+import com.battle.code.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 유저 프로필 캐시 (닉네임 등 화면 표시용)
+ * - 인증은 JWT 클레임만으로 처리하고, 프로필이 필요한 API 만 이 캐시를 거침
+ * - 최대 maxSize 개, 가장 오래 사용되지 않은 항목부터 제거 (LRU), ttl 이 지나면 다시 조회
+ * - 엔티티 대신 불변 레코드를 보관 (영속성 컨텍스트와 무관)
+ */
+@Component
+public class UserProfileCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlMs;
+
+    // userId -> 프로필 (access-order 로 LRU 순서 유지)
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public UserProfileCache(UserRepository userRepository,
+                            @Value("${user-cache.max-size:10000}") int maxSize,
+                            @Value("${user-cache.ttl-ms:60000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+    }
+
+    public record Profile(Long userId, String username, String nickname, User.Role role, String provider) {
+        private static Profile of(User user) {
+            return new Profile(user.getId(), user.getUsername(), user.getNickname(), user.getRole(), user.getProvider());
+        }
+    }
+
+    private record Entry(Profile profile, long expiresAt) {}
+
+    // 프로필 조회 (캐시에 없거나 만료됐으면 DB 조회 후 저장, 없는 유저면 empty)
+    public Optional<Profile> get(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt() > now) {
+                hits++;
+                return Optional.of(entry.profile());
+            }
+            misses++;
+        }
+
+        Optional<Profile> profile = userRepository.findById(userId).map(Profile::of);
+        profile.ifPresent(this::put);
+        return profile;
+    }
+
+    // 프로필 변경 시 호출
+    public synchronized void evict(Long userId) {
+        entries.remove(userId);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("maxSize", maxSize);
+            stats.put("ttlMs", ttlMs);
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        }
+        return stats;
+    }
+
+    private synchronized void put(Profile profile) {
+        entries.put(profile.userId(), new Entry(profile, System.currentTimeMillis() + ttlMs));
+        while (entries.size() > maxSize) {
+            Long eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+        }
+    }
+}
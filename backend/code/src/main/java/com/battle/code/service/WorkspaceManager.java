@@ -0,0 +1,228 @@
+package com.battle.code.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 매치 작업 디렉토리(map.json, 플레이어 소스, 컴파일 결과) 관리
+ * - 위치: workspace.root (기본 {user.dir}/temp), workspace.ram-backed=true 면 /dev/shm 하위 (tmpfs)
+ * - 상태: CREATED(준비) -> IN_USE(referee 실행 중) -> CREATED ... -> FINISHED(결과 저장 완료, 즉시 삭제)
+ * - 결과 저장 없이 방치된 디렉토리는 마지막 사용 후 TTL 이 지나면 정리 (실행 중인 디렉토리는 제외)
+ * - 상태 전이는 모두 workspaces.compute* 안에서 수행 -> 같은 id 에 대한 확인/변경/삭제가 원자적
+ */
+@Slf4j
+@Component
+public class WorkspaceManager {
+
+    public enum State { CREATED, IN_USE, FINISHED }
+
+    private static final String RAM_ROOT = "/dev/shm/code-battle-arena";
+
+    private final Path root;
+    private final long ttlMs;
+    private final Map<String, Workspace> workspaces = new ConcurrentHashMap<>();
+
+    public WorkspaceManager(@Value("${workspace.root:}") String root,
+                            @Value("${workspace.ram-backed:false}") boolean ramBacked,
+                            @Value("${workspace.ttl-ms:1800000}") long ttlMs) {
+        this.root = resolveRoot(root, ramBacked);
+        this.ttlMs = ttlMs;
+        adoptOrphans();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    // 새 작업 디렉토리 생성 (이미 있으면 그대로 사용)
+    public Path create(String id) throws IOException {
+        Path dir = root.resolve(id);
+        try {
+            workspaces.compute(id, (k, workspace) -> {
+                createDirectories(dir);
+                if (workspace == null) workspace = new Workspace(dir);
+                if (workspace.users == 0) workspace.touch(State.CREATED);
+                return workspace;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return dir;
+    }
+
+    /**
+     * 실행을 위해 작업 디렉토리 점유
+     * - 존재하지 않으면 RuntimeException ("Match ID not found.")
+     */
+    public Path acquire(String id) {
+        Path[] acquired = new Path[1];
+        workspaces.computeIfPresent(id, (k, workspace) -> {
+            if (workspace.state != State.FINISHED && Files.exists(workspace.path)) {
+                workspace.users++;
+                workspace.touch(State.IN_USE);
+                acquired[0] = workspace.path;
+            }
+            return workspace;
+        });
+        if (acquired[0] == null) {
+            throw new RuntimeException("Match ID not found.");
+        }
+        return acquired[0];
+    }
+
+    /**
+     * 실행 종료 (같은 매치에서 다시 사용할 수 있음)
+     * - 동시에 점유한 실행이 남아 있으면 IN_USE 유지
+     */
+    public void release(String id) {
+        workspaces.computeIfPresent(id, (k, workspace) -> {
+            if (workspace.users > 0) workspace.users--;
+            if (workspace.users > 0) {
+                workspace.touch(State.IN_USE);
+                return workspace;
+            }
+            if (workspace.finishRequested) return reclaim(k, workspace);
+            workspace.touch(State.CREATED);
+            return workspace;
+        });
+    }
+
+    /**
+     * 결과 저장 완료 -> 즉시 삭제
+     * - 실행 중(IN_USE)이면 release 시점에 삭제 (탈주 처리 등)
+     */
+    public void finish(String id) {
+        workspaces.computeIfPresent(id, (k, workspace) -> {
+            if (workspace.users > 0) {
+                workspace.finishRequested = true;
+                return workspace;
+            }
+            return reclaim(k, workspace);
+        });
+    }
+
+    // FINISHED(삭제 실패분) 또는 TTL 이 지난 작업 디렉토리 정리 (실행 중이면 건너뜀)
+    @Scheduled(fixedDelayString = "${workspace.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (String id : workspaces.keySet()) {
+            workspaces.computeIfPresent(id, (k, workspace) -> {
+                if (workspace.state == State.IN_USE) return workspace;
+                if (workspace.state == State.FINISHED || now - workspace.lastTouched > ttlMs) {
+                    return reclaim(k, workspace);
+                }
+                return workspace;
+            });
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<State, Integer> counts = new EnumMap<>(State.class);
+        for (State state : State.values()) counts.put(state, 0);
+        long bytes = 0;
+        for (Workspace workspace : workspaces.values()) {
+            counts.merge(workspace.state, 1, Integer::sum);
+            bytes += sizeOf(workspace.path);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("root", root.toString());
+        stats.put("total", workspaces.size());
+        stats.put("created", counts.get(State.CREATED));
+        stats.put("inUse", counts.get(State.IN_USE));
+        stats.put("finished", counts.get(State.FINISHED));
+        stats.put("bytes", bytes);
+        return stats;
+    }
+
+    // compute* 안에서만 호출: 삭제되면 null (맵에서 제거), 실패하면 FINISHED 로 남겨 sweep 에서 재시도
+    private Workspace reclaim(String id, Workspace workspace) {
+        workspace.touch(State.FINISHED);
+        if (!deleteRecursively(workspace.path)) return workspace;
+        log.debug("[Workspace] Reclaimed {}", id);
+        return null;
+    }
+
+    private void createDirectories(Path dir) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path resolveRoot(String root, boolean ramBacked) {
+        if (root != null && !root.isBlank()) return Paths.get(root).toAbsolutePath();
+        if (ramBacked) {
+            if (Files.isDirectory(Paths.get("/dev/shm"))) return Paths.get(RAM_ROOT);
+            log.warn("[Workspace] /dev/shm not available. Falling back to disk.");
+        }
+        return Paths.get(System.getProperty("user.dir"), "temp").toAbsolutePath();
+    }
+
+    // 재시작 전 남은 디렉토리는 TTL 정리 대상으로 등록
+    private void adoptOrphans() {
+        try {
+            Files.createDirectories(root);
+            try (Stream<Path> dirs = Files.list(root)) {
+                dirs.filter(Files::isDirectory).forEach(dir -> {
+                    Workspace workspace = new Workspace(dir);
+                    workspace.lastTouched = dir.toFile().lastModified();
+                    workspaces.put(dir.getFileName().toString(), workspace);
+                });
+            }
+            log.info("[Workspace] Root: {} ({} existing)", root, workspaces.size());
+        } catch (IOException e) {
+            log.warn("[Workspace] Failed to scan root {}: {}", root, e.getMessage());
+        }
+    }
+
+    private long sizeOf(Path dir) {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private boolean deleteRecursively(Path dir) {
+        if (!Files.exists(dir)) return true;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.warn("[Workspace] Failed to delete {}: {}", dir, e.getMessage());
+        }
+        return !Files.exists(dir);
+    }
+
+    private static class Workspace {
+        private final Path path;
+        private volatile State state = State.CREATED;
+        private volatile long lastTouched = System.currentTimeMillis();
+        private volatile boolean finishRequested;
+        private int users; // 현재 점유 중인 실행 수 (compute* 안에서만 변경)
+
+        private Workspace(Path path) {
+            this.path = path;
+        }
+
+        private void touch(State state) {
+            this.state = state;
+            this.lastTouched = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.battle.code.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandGrabMapGeneratorTest {
+
+    private static final int N = LandGrabMapGenerator.BOARD_SIZE;
+    private static final List<Integer> SPAWN_P1 = List.of(0, 0);
+    private static final List<Integer> SPAWN_P2 = List.of(N - 1, N - 1);
+
+    private final LandGrabMapGenerator generator = new LandGrabMapGenerator();
+
+    @Test
+    void sameSeedGeneratesSameMap() {
+        assertEquals(generator.generate(42L), generator.generate(42L));
+    }
+
+    @Test
+    void generatedMapsSatisfyRefereeInvariants() {
+        for (long seed = 0; seed < 200; seed++) {
+            Map<String, Object> map = generator.generate(seed);
+            List<List<Integer>> walls = points(map, "walls");
+            List<List<Integer>> coins = points(map, "coins");
+
+            // referee 보드 범위 (BOARD_SIZE 15, 시작점 [0,0] / [14,14])
+            assertEquals(15, N);
+            for (List<Integer> wall : walls) assertInBounds(wall, seed);
+            for (List<Integer> coin : coins) assertInBounds(coin, seed);
+
+            // 벽 중복 없음, 시작점에는 벽 없음
+            Set<List<Integer>> wallSet = new HashSet<>(walls);
+            assertEquals(walls.size(), wallSet.size(), "duplicate wall, seed " + seed);
+            assertFalse(wallSet.contains(SPAWN_P1), "wall on p1 spawn, seed " + seed);
+            assertFalse(wallSet.contains(SPAWN_P2), "wall on p2 spawn, seed " + seed);
+
+            // 코인 5개, 벽/시작점/다른 코인과 겹치지 않음
+            Set<List<Integer>> coinSet = new HashSet<>(coins);
+            assertEquals(5, coins.size());
+            assertEquals(coins.size(), coinSet.size(), "duplicate coin, seed " + seed);
+            for (List<Integer> coin : coins) {
+                assertFalse(wallSet.contains(coin) || coin.equals(SPAWN_P1) || coin.equals(SPAWN_P2),
+                        "coin on occupied cell " + coin + ", seed " + seed);
+            }
+
+            assertTrue(reachable(wallSet), "spawns not connected, seed " + seed);
+        }
+    }
+
+    // 생성기의 isReachable 과 별개로 좌표 기반 BFS 로 확인
+    private boolean reachable(Set<List<Integer>> walls) {
+        Set<List<Integer>> visited = new HashSet<>();
+        ArrayDeque<List<Integer>> queue = new ArrayDeque<>();
+        queue.add(SPAWN_P1);
+        visited.add(SPAWN_P1);
+        int[][] dirs = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+        while (!queue.isEmpty()) {
+            List<Integer> cell = queue.poll();
+            if (cell.equals(SPAWN_P2)) return true;
+            for (int[] d : dirs) {
+                int x = cell.get(0) + d[0];
+                int y = cell.get(1) + d[1];
+                List<Integer> next = List.of(x, y);
+                if (x < 0 || y < 0 || x >= N || y >= N || walls.contains(next) || !visited.add(next)) continue;
+                queue.add(next);
+            }
+        }
+        return false;
+    }
+
+    private void assertInBounds(List<Integer> point, long seed) {
+        assertEquals(2, point.size());
+        assertTrue(point.get(0) >= 0 && point.get(0) < N && point.get(1) >= 0 && point.get(1) < N,
+                "out of bounds " + point + ", seed " + seed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Integer>> points(Map<String, Object> map, String key) {
+        return (List<List<Integer>>) map.get(key);
+    }
+}
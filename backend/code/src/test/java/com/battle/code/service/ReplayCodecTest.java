@@ -0,0 +1,78 @@
+package com.battle.code.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayCodecTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ReplayCodec codec = new ReplayCodec(objectMapper);
+
+    // 녹화된 referee 실행 (FakeSandboxExecutor 와 같은 파일, 0 ~ 50 턴)
+    private static List<Map<String, Object>> logs;
+
+    @BeforeAll
+    static void loadRecordedRun() throws IOException {
+        logs = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ReplayCodecTest.class.getResourceAsStream("/fake/land_grab_run.jsonl"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Map<String, Object> message = objectMapper.readValue(line, new TypeReference<>() {});
+                if (!"TURN".equals(message.remove("type"))) continue;
+                logs.add(message);
+            }
+        }
+        assertEquals(51, logs.size());
+    }
+
+    @Test
+    void roundTripsRecordedRun() throws IOException {
+        String encoded = codec.encode(logs);
+
+        assertTrue(codec.isCompact(encoded));
+        assertEquals(logs, codec.decode(encoded));
+    }
+
+    @Test
+    void decodesRangeStartingPastKeyframe() throws IOException {
+        String encoded = codec.encode(logs);
+
+        // 13 ~ 27: 키프레임 10 부터 변경분 적용, 키프레임 20 을 지나감
+        assertEquals(logs.subList(13, 28), codec.decode(encoded, 13, 27));
+        assertEquals(logs.subList(20, 21), codec.decode(encoded, 20, 20));
+        assertEquals(logs.subList(45, 51), codec.decode(encoded, 45, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void roundTripsSystemErrorAfterLastTurn() throws IOException {
+        List<Map<String, Object>> withError = new ArrayList<>(logs);
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("system_error", "Timeout");
+        withError.add(error);
+
+        assertEquals(withError, codec.decode(codec.encode(withError)));
+    }
+
+    @Test
+    void decodesLegacyTurnArray() throws IOException {
+        String legacy = objectMapper.writeValueAsString(logs);
+
+        assertFalse(codec.isCompact(legacy));
+        assertEquals(logs, codec.decode(legacy));
+        assertEquals(logs.subList(13, 28), codec.decode(legacy, 13, 27));
+    }
+}
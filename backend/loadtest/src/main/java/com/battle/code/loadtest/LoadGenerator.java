@@ -0,0 +1,143 @@
+package com.battle.code.loadtest;
+
+import com.battle.code.loadtest.PhaseStats.Phase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매칭/PvP 부하 생성기
+ * - clients 명의 가상 플레이어가 rampMs 동안 나눠서 접속, 각자 rounds 번 매칭 -> 제출 -> RESULT 수신
+ * - 서버는 sandbox.executor=fake (sandbox.pool.size=0) 로 띄우면 Docker 없이 실행 가능
+ * - 끝나면 단계별 처리량/지연 백분위 출력 (--json=경로 지정 시 파일로도 저장)
+ *
+ * 예) java -jar target/loadtest.jar --url=http://localhost:8080 --clients=2000 --rounds=3 --ramp-ms=20000
+ */
+public class LoadGenerator {
+
+    public record Config(String url, int clients, int rounds, long rampMs, long timeoutMs,
+                         String gameType, String language, String code, String jsonPath) {
+
+        // SockJS 엔드포인트의 raw WebSocket 경로
+        public String stompUrl() {
+            return url.replaceFirst("^http", "ws") + "/ws-stomp/websocket";
+        }
+
+        static Config parse(String[] args) throws IOException {
+            Map<String, String> options = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Options must be --key=value: " + arg);
+                }
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+
+            String codeFile = options.get("code-file");
+            String code = codeFile != null ? Files.readString(Path.of(codeFile)) : defaultCode();
+            return new Config(
+                    options.getOrDefault("url", "http://localhost:8080").replaceAll("/$", ""),
+                    Integer.parseInt(options.getOrDefault("clients", "100")),
+                    Integer.parseInt(options.getOrDefault("rounds", "1")),
+                    Long.parseLong(options.getOrDefault("ramp-ms", "10000")),
+                    Long.parseLong(options.getOrDefault("timeout-ms", "180000")),
+                    options.getOrDefault("game-type", "land_grab"),
+                    options.getOrDefault("language", "python"),
+                    code,
+                    options.get("json"));
+        }
+
+        private static String defaultCode() throws IOException {
+            try (InputStream in = LoadGenerator.class.getResourceAsStream("/bot.py")) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        // TURN/매칭 메시지가 기본 버퍼(8KB)를 넘을 수 있음
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(256 * 1024);
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient(container));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setInboundMessageSizeLimit(256 * 1024);
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        PhaseStats stats = new PhaseStats();
+        CountDownLatch done = new CountDownLatch(config.clients());
+        ScheduledExecutorService launcher = Executors.newScheduledThreadPool(
+                Math.max(1, Math.min(32, config.clients() / 50)));
+
+        System.out.printf("Starting %d clients x %d rounds against %s (ramp %dms)%n",
+                config.clients(), config.rounds(), config.url(), config.rampMs());
+
+        List<SimulatedPlayer> players = new ArrayList<>(config.clients());
+        long start = System.nanoTime();
+        for (int i = 0; i < config.clients(); i++) {
+            SimulatedPlayer player = new SimulatedPlayer(config, stats, httpClient, stompClient, objectMapper, done);
+            players.add(player);
+            long delay = config.clients() > 1 ? config.rampMs() * i / (config.clients() - 1) : 0;
+            launcher.schedule(player::start, delay, TimeUnit.MILLISECONDS);
+        }
+
+        boolean completed = done.await(config.rampMs() + config.timeoutMs() * config.rounds(), TimeUnit.MILLISECONDS);
+        double elapsedSec = (System.nanoTime() - start) / 1e9;
+        long timedOut = players.stream().filter(p -> !p.isFinished()).count();
+        long failed = players.stream().filter(SimulatedPlayer::isFailed).count();
+
+        launcher.shutdownNow();
+        players.forEach(SimulatedPlayer::disconnect);
+
+        Map<String, Object> report = stats.report(elapsedSec);
+        report.put("clients", config.clients());
+        report.put("rounds", config.rounds());
+        report.put("elapsedSec", elapsedSec);
+        report.put("matchesPerSec", stats.count(Phase.END_TO_END) / 2.0 / elapsedSec);
+        report.put("timedOutClients", timedOut);
+        report.put("failedClients", failed);
+        print(report, completed);
+
+        if (config.jsonPath() != null) {
+            Files.writeString(Path.of(config.jsonPath()), objectMapper.writeValueAsString(report));
+            System.out.println("Report written to " + config.jsonPath());
+        }
+        System.exit(completed && timedOut == 0 && failed == 0 ? 0 : 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report, boolean completed) {
+        System.out.printf("%nElapsed %.1fs, %.2f matches/s, failed clients: %d, timed out clients: %d%s%n",
+                (double) report.get("elapsedSec"), (double) report.get("matchesPerSec"), (long) report.get("failedClients"),
+                (long) report.get("timedOutClients"), completed ? "" : " (deadline reached)");
+        System.out.printf("%-12s %8s %9s %10s %10s %10s %10s%n", "phase", "count", "per_sec", "p50_ms", "p90_ms", "p99_ms", "max_ms");
+        ((Map<String, Map<String, Object>>) report.get("phases")).forEach((phase, row) ->
+                System.out.printf("%-12s %8d %9.2f %10.1f %10.1f %10.1f %10.1f%n", phase,
+                        (int) row.get("count"), (double) row.get("perSec"), (double) row.get("p50Ms"),
+                        (double) row.get("p90Ms"), (double) row.get("p99Ms"), (double) row.get("maxMs")));
+
+        Map<String, Object> errors = (Map<String, Object>) report.get("errors");
+        if (!errors.isEmpty()) System.out.println("errors: " + errors);
+    }
+}
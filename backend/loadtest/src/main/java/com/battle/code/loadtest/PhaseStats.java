@@ -0,0 +1,98 @@
+package com.battle.code.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 단계별 지연 기록 + 오류 집계
+ * - 모든 샘플을 보관 (수천 클라이언트 x 수 라운드 규모 기준), 리포트 시 정렬해서 백분위 계산
+ * - 단계는 Phase 순서대로 출력
+ */
+public class PhaseStats {
+
+    public enum Phase {
+        LOGIN("login", "게스트 로그인 HTTP 요청"),
+        CONNECT("connect", "STOMP CONNECT ~ 연결 완료"),
+        QUEUE_WAIT("queue_wait", "/app/match/join ~ /topic/match 수신"),
+        SUBMIT_ACK("submit_ack", "/app/game/submit ~ 자신의 PLAYER_SUBMITTED 수신"),
+        FIRST_TURN("first_turn", "양쪽 제출 완료 ~ 첫 TURN 수신"),
+        EXECUTION("execution", "양쪽 제출 완료 ~ RESULT 수신"),
+        END_TO_END("end_to_end", "/app/match/join ~ RESULT 수신");
+
+        private final String key;
+        private final String description;
+
+        Phase(String key, String description) {
+            this.key = key;
+            this.description = description;
+        }
+    }
+
+    private final Map<Phase, Samples> samples = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+    public void record(Phase phase, long nanos) {
+        samples.computeIfAbsent(phase, p -> new Samples()).add(nanos);
+    }
+
+    public void error(String reason) {
+        errors.computeIfAbsent(reason, r -> new AtomicLong()).incrementAndGet();
+    }
+
+    public long count(Phase phase) {
+        Samples s = samples.get(phase);
+        return s == null ? 0 : s.snapshot().length;
+    }
+
+    // 단계별 count, 초당 처리량, 백분위(ms)
+    public Map<String, Object> report(double elapsedSec) {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            Samples s = samples.get(phase);
+            if (s == null) continue;
+            long[] sorted = s.snapshot();
+            Arrays.sort(sorted);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("description", phase.description);
+            row.put("count", sorted.length);
+            row.put("perSec", elapsedSec > 0 ? sorted.length / elapsedSec : 0.0);
+            row.put("p50Ms", percentileMs(sorted, 0.50));
+            row.put("p90Ms", percentileMs(sorted, 0.90));
+            row.put("p99Ms", percentileMs(sorted, 0.99));
+            row.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+            phases.put(phase.key, row);
+        }
+
+        Map<String, Object> errorCounts = new LinkedHashMap<>();
+        errors.forEach((reason, count) -> errorCounts.put(reason, count.get()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("phases", phases);
+        report.put("errors", errorCounts);
+        return report;
+    }
+
+    private static double percentileMs(long[] sorted, double q) {
+        if (sorted.length == 0) return 0.0;
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        private synchronized void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private synchronized long[] snapshot() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.battle.code.loadtest;
+
+import com.battle.code.loadtest.PhaseStats.Phase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 가상 플레이어 한 명
+ * - 게스트 로그인 -> STOMP 연결 (Authorization 헤더) -> /topic/match/{userId} 구독 -> /app/match/join
+ * - 매칭되면 /topic/game/{matchId} 구독, /app/game/join + /app/game/submit
+ * - RESULT 를 받으면 다음 라운드 (rounds 만큼 반복), 끝나면 done 감소
+ * - 연결은 끝까지 유지 (중간에 끊으면 서버가 상대 기권승으로 처리하므로 LoadGenerator 가 마지막에 한꺼번에 종료)
+ */
+public class SimulatedPlayer extends StompSessionHandlerAdapter {
+
+    private final LoadGenerator.Config config;
+    private final PhaseStats stats;
+    private final HttpClient httpClient;
+    private final WebSocketStompClient stompClient;
+    private final ObjectMapper objectMapper;
+    private final CountDownLatch done;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile boolean failed;
+
+    private volatile StompSession session;
+    private Long userId;
+    private String token;
+    private int roundsLeft;
+    private long connectStart;
+
+    // 현재 라운드 상태 (STOMP 수신 스레드에서만 변경)
+    private long joinedAt;
+    private long submittedAt;
+    private long bothSubmittedAt;
+    private boolean firstTurnSeen;
+    private String role;
+    private final Set<String> submittedRoles = new HashSet<>();
+    private StompSession.Subscription gameSubscription;
+
+    public SimulatedPlayer(LoadGenerator.Config config, PhaseStats stats, HttpClient httpClient,
+                           WebSocketStompClient stompClient, ObjectMapper objectMapper, CountDownLatch done) {
+        this.config = config;
+        this.stats = stats;
+        this.httpClient = httpClient;
+        this.stompClient = stompClient;
+        this.objectMapper = objectMapper;
+        this.done = done;
+        this.roundsLeft = config.rounds();
+    }
+
+    public void start() {
+        try {
+            long start = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(config.url() + "/api/auth/guest"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                fail("login_http_" + response.statusCode());
+                return;
+            }
+            Map<?, ?> body = objectMapper.readValue(response.body(), Map.class);
+            userId = ((Number) body.get("userId")).longValue();
+            token = (String) body.get("accessToken");
+            stats.record(Phase.LOGIN, System.nanoTime() - start);
+        } catch (Exception e) {
+            fail("login_failed");
+            return;
+        }
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        connectStart = System.nanoTime();
+        stompClient.connectAsync(config.stompUrl(), new WebSocketHttpHeaders(), connectHeaders, this)
+                .exceptionally(e -> {
+                    fail("connect_failed");
+                    return null;
+                });
+    }
+
+    public void disconnect() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) current.disconnect();
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        stats.record(Phase.CONNECT, System.nanoTime() - connectStart);
+        session.subscribe("/topic/match/" + userId, handler(this::onMatched));
+        join();
+    }
+
+    private void join() {
+        joinedAt = System.nanoTime();
+        submittedAt = 0;
+        bothSubmittedAt = 0;
+        firstTurnSeen = false;
+        submittedRoles.clear();
+        session.send("/app/match/join", Map.of("userId", userId, "gameType", config.gameType()));
+    }
+
+    private synchronized void onMatched(Map<String, Object> event) {
+        stats.record(Phase.QUEUE_WAIT, System.nanoTime() - joinedAt);
+        String matchId = (String) event.get("matchId");
+        role = (String) event.get("myRole");
+
+        gameSubscription = session.subscribe("/topic/game/" + matchId, handler(this::onGameMessage));
+        session.send("/app/game/join", Map.of("matchId", matchId, "userId", String.valueOf(userId)));
+
+        submittedAt = System.nanoTime();
+        session.send("/app/game/submit", Map.of(
+                "matchId", matchId,
+                "userId", userId,
+                "code", config.code(),
+                "language", config.language()));
+    }
+
+    private synchronized void onGameMessage(Map<String, Object> message) {
+        long now = System.nanoTime();
+        String type = String.valueOf(message.get("type"));
+        switch (type) {
+            case "NOTIFICATION" -> {
+                if (!"PLAYER_SUBMITTED".equals(message.get("message"))) return;
+                String submitted = (String) message.get("role");
+                if (submitted.equals(role)) stats.record(Phase.SUBMIT_ACK, now - submittedAt);
+                if (submittedRoles.add(submitted) && submittedRoles.size() == 2) bothSubmittedAt = now;
+            }
+            case "TURN" -> {
+                if (firstTurnSeen) return;
+                firstTurnSeen = true;
+                stats.record(Phase.FIRST_TURN, now - readySince());
+            }
+            case "RESULT" -> {
+                stats.record(Phase.EXECUTION, now - readySince());
+                stats.record(Phase.END_TO_END, now - joinedAt);
+                if (message.get("reason") != null) stats.error("result_" + message.get("reason"));
+                nextRound();
+            }
+            case "ERROR" -> {
+                stats.error("match_error");
+                nextRound();
+            }
+            default -> {
+            }
+        }
+    }
+
+    // 양쪽 제출 알림을 다 받지 못했으면 자신의 제출 시각 기준
+    private long readySince() {
+        return bothSubmittedAt != 0 ? bothSubmittedAt : submittedAt;
+    }
+
+    private void nextRound() {
+        if (gameSubscription != null) {
+            gameSubscription.unsubscribe();
+            gameSubscription = null;
+        }
+        if (--roundsLeft > 0) {
+            join();
+        } else if (finished.compareAndSet(false, true)) {
+            done.countDown();
+        }
+    }
+
+    public boolean isFinished() {
+        return finished.get();
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload, Throwable e) {
+        stats.error("stomp_exception");
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable e) {
+        fail("transport_error");
+    }
+
+    private void fail(String reason) {
+        stats.error(reason);
+        failed = true;
+        if (finished.compareAndSet(false, true)) done.countDown();
+    }
+
+    private interface MessageListener {
+        void accept(Map<String, Object> message);
+    }
+
+    private StompFrameHandler handler(MessageListener listener) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                try {
+                    listener.accept((Map<String, Object>) payload);
+                } catch (RuntimeException e) {
+                    stats.error("handler_" + e.getClass().getSimpleName());
+                }
+            }
+        };
+    }
+}
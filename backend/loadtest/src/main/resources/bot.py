@@ -0,0 +1,14 @@
+def strategy(my_pos, coins, walls, board_size):
+    if not coins:
+        return "STAY"
+    x, y = my_pos
+    tx, ty = min(coins, key=lambda c: abs(c[0] - x) + abs(c[1] - y))
+    if tx > x:
+        return "MOVE_RIGHT"
+    if tx < x:
+        return "MOVE_LEFT"
+    if ty > y:
+        return "MOVE_DOWN"
+    if ty < y:
+        return "MOVE_UP"
+    return "STAY"
@@ -73,7 +73,7 @@ def run(map_file, p1_cmd, p2_cmd):
     # ------------------------------------------
     # [Phase 0] 초기 상태 기록 (Turn 0)
     # ------------------------------------------
-    game_logs.append({
+    _emit_turn(game_logs, {
         "turn": 0,
         "p1": {"act": "START", "pos": list(p1_pos), "alive": True},
         "p2": {"act": "START", "pos": list(p2_pos), "alive": True},
@@ -153,8 +153,8 @@ def run(map_file, p1_cmd, p2_cmd):
                 new_c = _spawn_coin(walls, coins, [p1_pos, p2_pos])
                 if new_c: coins.append(new_c)
 
-            # 로그 저장
-            game_logs.append({
+            # 로그 저장 및 실시간 전송
+            _emit_turn(game_logs, {
                 "turn": turn,
                 "p1": {"act": act1, "pos": list(p1_pos), "alive": p1_alive},
                 "p2": {"act": act2, "pos": list(p2_pos), "alive": p2_alive},
@@ -165,7 +165,7 @@ def run(map_file, p1_cmd, p2_cmd):
             })
 
     except Exception as e:
-        game_logs.append({"system_error": str(e)})
+        _emit_turn(game_logs, {"system_error": str(e)})
 
     finally:
         if p1.poll() is None: p1.terminate()
@@ -175,15 +175,16 @@ def run(map_file, p1_cmd, p2_cmd):
         if scores["p1"] > scores["p2"]: winner = "p1"
         elif scores["p2"] > scores["p1"]: winner = "p2"
 
+        # 턴 로그는 이미 한 줄씩 전송했으므로 최종 결과에는 포함하지 않음
         result = {
+            "type": "RESULT",
             "winner": winner,
             "final_scores": scores,
             "total_turns": len(game_logs) - 1,
-            "logs": game_logs,
             "p1_error": p1_error,
             "p2_error": p2_error
         }
-        print(json.dumps(result))
+        print(json.dumps(result), flush=True)
 
 # ==========================================
 # Helper Functions (Internal)
@@ -208,6 +209,13 @@ def _generate_map_data():
         return {"walls": walls, "coins": coins}
 
 
+def _emit_turn(game_logs, turn_log):
+    """
+    턴 로그를 한 줄(JSON)로 즉시 출력 -> 백엔드가 줄 단위로 읽어 구독자에게 전달
+    """
+    game_logs.append(turn_log)
+    print(json.dumps({"type": "TURN", **turn_log}), flush=True)
+
 def _spawn_coin(walls, coins, players):
     for _ in range(100):
         c = [random.randint(0, BOARD_SIZE-1), random.randint(0, BOARD_SIZE-1)]
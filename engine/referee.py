@@ -6,13 +6,20 @@ import json
 
 # --- 설정 상수 ---
 BASE_DIR = "/app"
-DATA_DIR = os.path.join(BASE_DIR, "data")
-PLAYERS_DIR = os.path.join(BASE_DIR, "players")
+# 워밍 풀 컨테이너는 작업 디렉토리를 환경변수로 전달받음 (기본값: 단발 컨테이너 마운트 경로)
+DATA_DIR = os.environ.get("REFEREE_DATA_DIR", os.path.join(BASE_DIR, "data"))
+PLAYERS_DIR = os.environ.get("REFEREE_PLAYERS_DIR", os.path.join(BASE_DIR, "players"))
 MAP_FILE = os.path.join(DATA_DIR, "map.json")
 
 # 컴파일 제한 시간 (초)
 COMPILE_TIMEOUT = 10 
 
+def _is_fresh(artifact, src):
+    """
+    백엔드 캐시에서 복원된 산출물이 소스보다 최신이면 컴파일 생략
+    """
+    return os.path.exists(artifact) and os.path.getmtime(artifact) >= os.path.getmtime(src)
+
 def prepare_player(player_prefix):
     """
     폴더 격리 방식 적용: /app/players/{p1|p2}/Main.java 등을 찾음
@@ -24,11 +31,12 @@ def prepare_player(player_prefix):
         # 1. Java (Main.java가 서브 폴더에 있음)
         java_src = os.path.join(player_dir, "Main.java")
         if os.path.exists(java_src):
-            compile_cmd = ["javac", java_src]
-            result = subprocess.run(compile_cmd, capture_output=True, text=True, timeout=COMPILE_TIMEOUT)
-            
-            if result.returncode != 0:
-                raise Exception(f"[Java Compilation Error]\n{result.stderr}")
+            if not _is_fresh(os.path.join(player_dir, "Main.class"), java_src):
+                compile_cmd = ["javac", java_src]
+                result = subprocess.run(compile_cmd, capture_output=True, text=True, timeout=COMPILE_TIMEOUT)
+
+                if result.returncode != 0:
+                    raise Exception(f"[Java Compilation Error]\n{result.stderr}")
             
             # [중요] 실행 시 Classpath(-cp)를 해당 폴더로 지정
             return ["java", "-cp", player_dir, "Main"]
@@ -37,11 +45,24 @@ def prepare_player(player_prefix):
         cpp_src = os.path.join(player_dir, f"{player_prefix}.cpp")
         if os.path.exists(cpp_src):
             out_file = os.path.join(player_dir, f"{player_prefix}.out") # 실행 파일도 그 안에 생성
-            compile_cmd = ["g++", cpp_src, "-o", out_file]
-            result = subprocess.run(compile_cmd, capture_output=True, text=True, timeout=COMPILE_TIMEOUT)
-            
-            if result.returncode != 0:
-                raise Exception(f"[C++ Compilation Error]\n{result.stderr}")
+            if not _is_fresh(out_file, cpp_src):
+                compile_cmd = ["g++", cpp_src, "-o", out_file]
+                result = subprocess.run(compile_cmd, capture_output=True, text=True, timeout=COMPILE_TIMEOUT)
+
+                if result.returncode != 0:
+                    raise Exception(f"[C++ Compilation Error]\n{result.stderr}")
+            return [out_file]
+
+        # 2-1. C (p1.c가 서브 폴더에 있음)
+        c_src = os.path.join(player_dir, f"{player_prefix}.c")
+        if os.path.exists(c_src):
+            out_file = os.path.join(player_dir, f"{player_prefix}.out")
+            if not _is_fresh(out_file, c_src):
+                compile_cmd = ["gcc", c_src, "-o", out_file]
+                result = subprocess.run(compile_cmd, capture_output=True, text=True, timeout=COMPILE_TIMEOUT)
+
+                if result.returncode != 0:
+                    raise Exception(f"[C Compilation Error]\n{result.stderr}")
             return [out_file]
 
         # 3. Python (p1.py가 서브 폴더에 있음)
@@ -130,12 +130,23 @@ const GameArena = ({ onBack, difficulty, matchData }) => {
              return;
           }
 
+          // 턴 단위 실시간 진행 (Turn 0 이 오면 초기 보드를 교체)
+          if (res.type === 'TURN') {
+            const { type, ...turnLog } = res;
+            setGameData((prev) => ({
+              ...prev,
+              logs: turnLog.turn === 0 ? [turnLog] : [...(prev?.logs || []), turnLog]
+            }));
+            return;
+          }
+
           if (res.type === 'RESULT' || res.type === 'ERROR') {
             setIsWaitingOpponent(false);
             setLoading(false);
             
             // "OPPONENT_DISCONNECTED"도 여기서 처리됨 -> renderResultOverlay가 "VICTORY" 표시함
-            setGameData(res); 
+            // 결과 메시지에는 로그가 없으므로 스트리밍으로 받은 로그를 유지
+            setGameData((prev) => ({ ...res, logs: res.logs !== undefined ? res.logs : prev?.logs }));
             setStatus('finished');
           }
         });